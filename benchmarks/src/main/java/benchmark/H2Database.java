@@ -0,0 +1,98 @@
+package benchmark;
+
+import utils.DatabaseConnection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// Embedded H2 database in MySQL mode, created from resources/schema.sql.
+// DatabaseConnection is pointed at it, so the real repositories run unchanged.
+public class H2Database {
+
+    private static final String URL = "jdbc:h2:mem:fitness_tracker;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String USER = "sa";
+    private static final String PASSWORD = "";
+
+    private static boolean configured;
+
+    // Drops everything and re-runs schema.sql (which also inserts the 2 sample workouts)
+    public static synchronized void reset() throws SQLException, IOException {
+        if (!configured) {
+            DatabaseConnection.configureDatabase(URL, USER, PASSWORD);
+            configured = true;
+        }
+        try (Connection conn = open(); Statement st = conn.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+            for (String sql : schemaStatements()) {
+                st.execute(sql);
+            }
+        }
+    }
+
+    // Inserts workouts named "Workout <n>" (alternating CARDIO/STRENGTH) with exercisesPerWorkout exercises each
+    public static void seed(int workouts, int exercisesPerWorkout) throws SQLException {
+        try (Connection conn = open()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO workout (name, type, duration_minutes) VALUES (?, ?, ?)")) {
+                for (int i = 0; i < workouts; i++) {
+                    ps.setString(1, "Workout " + i);
+                    ps.setString(2, i % 2 == 0 ? "CARDIO" : "STRENGTH");
+                    ps.setInt(3, 10 + (i * 7919) % 170);
+                    ps.addBatch();
+                    if (i % 1000 == 999) ps.executeBatch();
+                }
+                ps.executeBatch();
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO exercises (workout_id, name, sets, reps) SELECT id, ?, ?, ? FROM workout")) {
+                for (int i = 0; i < exercisesPerWorkout; i++) {
+                    ps.setString(1, "Exercise " + i);
+                    ps.setInt(2, 3);
+                    ps.setInt(3, 8 + i);
+                    ps.executeUpdate();
+                }
+            }
+            conn.commit();
+        }
+    }
+
+    public static int maxWorkoutId() throws SQLException {
+        try (Connection conn = open(); Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT MAX(id) FROM workout")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static Connection open() throws SQLException {
+        return DriverManager.getConnection(URL, USER, PASSWORD);
+    }
+
+    // schema.sql without the MySQL-only CREATE DATABASE / USE statements
+    private static List<String> schemaStatements() throws IOException {
+        String script;
+        try (InputStream in = H2Database.class.getClassLoader().getResourceAsStream("schema.sql")) {
+            if (in == null) throw new IOException("schema.sql not found on classpath");
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        List<String> statements = new ArrayList<>();
+        for (String sql : script.split(";")) {
+            String trimmed = sql.strip();
+            String upper = trimmed.toUpperCase();
+            if (trimmed.isEmpty() || upper.startsWith("CREATE DATABASE") || upper.startsWith("USE ")) continue;
+            statements.add(trimmed);
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,131 @@
+package benchmark;
+
+import exception.DatabaseOperationException;
+import model.CardioWorkout;
+import model.Exercise;
+import model.Workout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.ExerciseRepository;
+import repository.WorkoutRepository;
+import utils.DatabaseConnection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// CRUD round trips through the JDBC repositories (pool + statement cache included) against H2
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    @Param({"1000"})
+    public int rows;
+
+    private WorkoutRepository workoutRepo;
+    private ExerciseRepository exerciseRepo;
+    private int maxId;
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        H2Database.reset();
+        H2Database.seed(rows, 5);
+        maxId = H2Database.maxWorkoutId();
+        workoutRepo = new WorkoutRepository();
+        exerciseRepo = new ExerciseRepository();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseConnection.shutdown();
+    }
+
+    private int randomId() {
+        return 1 + ThreadLocalRandom.current().nextInt(maxId);
+    }
+
+    @Benchmark
+    public Workout workoutGetById() throws DatabaseOperationException {
+        return workoutRepo.getById(randomId());
+    }
+
+    @Benchmark
+    public List<Workout> workoutGetAll() throws DatabaseOperationException {
+        return workoutRepo.getAll();
+    }
+
+    @Benchmark
+    public boolean workoutExistsByName() throws DatabaseOperationException {
+        return workoutRepo.existsByName("Workout " + ThreadLocalRandom.current().nextInt(rows));
+    }
+
+    @Benchmark
+    public void workoutUpdate() throws DatabaseOperationException {
+        int id = randomId();
+        workoutRepo.update(id, new CardioWorkout(id, "Updated " + id, 30));
+    }
+
+    // create + delete keeps the table size stable across iterations
+    @Benchmark
+    public void workoutCreateDelete() throws DatabaseOperationException {
+        Workout w = new CardioWorkout("Bench " + sequence++, 25);
+        workoutRepo.create(w);
+        workoutRepo.delete(w.getId());
+    }
+
+    @Benchmark
+    public List<Exercise> exerciseGetByWorkoutId() throws DatabaseOperationException {
+        return exerciseRepo.getByWorkoutId(randomId());
+    }
+
+    @Benchmark
+    public void exerciseCreateDelete() throws DatabaseOperationException {
+        Exercise e = new Exercise(randomId(), "Bench Press", 3, 10);
+        exerciseRepo.create(e);
+        exerciseRepo.delete(e.getId());
+    }
+
+    // 20 single-row inserts vs one batch; the workout delete cascades to its exercises
+    @Benchmark
+    public void exerciseCreate20Single() throws DatabaseOperationException {
+        Workout w = new CardioWorkout("Plan " + sequence++, 25);
+        workoutRepo.create(w);
+        for (Exercise e : plan(w.getId())) {
+            exerciseRepo.create(e);
+        }
+        workoutRepo.delete(w.getId());
+    }
+
+    @Benchmark
+    public void exerciseCreate20Batch() throws DatabaseOperationException {
+        Workout w = new CardioWorkout("Plan " + sequence++, 25);
+        workoutRepo.create(w);
+        exerciseRepo.createAll(w.getId(), plan(w.getId()));
+        workoutRepo.delete(w.getId());
+    }
+
+    private static List<Exercise> plan(int workoutId) {
+        List<Exercise> exercises = new ArrayList<>(20);
+        for (int i = 0; i < 20; i++) {
+            exercises.add(new Exercise(workoutId, "Exercise " + i, 3, 10));
+        }
+        return exercises;
+    }
+}
@@ -0,0 +1,115 @@
+package benchmark;
+
+import model.CardioWorkout;
+import model.Exercise;
+import model.StrengthWorkout;
+import model.Workout;
+import org.h2.tools.SimpleResultSet;
+import repository.ExerciseRowMapper;
+import repository.RowMapper;
+import repository.WorkoutRowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+// Row mapping only: the repositories' mappers run over an in-memory ResultSet, no database involved.
+// The *ByName benchmarks are the old per-row mapping (a column lookup by label for every field,
+// validating constructors) kept as the baseline for WorkoutRowMapper/ExerciseRowMapper.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    private SimpleResultSet workoutRows;
+    private SimpleResultSet exerciseRows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workoutRows = new SimpleResultSet();
+        workoutRows.setAutoClose(false);
+        workoutRows.addColumn("id", Types.INTEGER, 10, 0);
+        workoutRows.addColumn("name", Types.VARCHAR, 100, 0);
+        workoutRows.addColumn("type", Types.VARCHAR, 50, 0);
+        workoutRows.addColumn("duration_minutes", Types.INTEGER, 10, 0);
+        for (int i = 1; i <= rows; i++) {
+            workoutRows.addRow(i, "Workout " + i, i % 2 == 0 ? "CARDIO" : "STRENGTH", 10 + i % 170);
+        }
+
+        exerciseRows = new SimpleResultSet();
+        exerciseRows.setAutoClose(false);
+        exerciseRows.addColumn("id", Types.INTEGER, 10, 0);
+        exerciseRows.addColumn("workout_id", Types.INTEGER, 10, 0);
+        exerciseRows.addColumn("name", Types.VARCHAR, 100, 0);
+        exerciseRows.addColumn("sets", Types.INTEGER, 10, 0);
+        exerciseRows.addColumn("reps", Types.INTEGER, 10, 0);
+        for (int i = 1; i <= rows; i++) {
+            exerciseRows.addRow(i, 1 + i / 5, "Exercise " + i % 40, 3, 10);
+        }
+    }
+
+    @Benchmark
+    public void mapWorkoutsByName(Blackhole bh) throws SQLException {
+        workoutRows.beforeFirst();
+        while (workoutRows.next()) {
+            int id = workoutRows.getInt("id");
+            String name = workoutRows.getString("name");
+            String type = workoutRows.getString("type");
+            int duration = workoutRows.getInt("duration_minutes");
+            if ("CARDIO".equalsIgnoreCase(type)) bh.consume(new CardioWorkout(id, name, duration));
+            else bh.consume(new StrengthWorkout(id, name, duration));
+        }
+    }
+
+    @Benchmark
+    public void mapWorkouts(Blackhole bh) throws SQLException {
+        workoutRows.beforeFirst();
+        RowMapper<Workout> mapper = WorkoutRowMapper.bind(workoutRows);
+        while (workoutRows.next()) {
+            bh.consume(mapper.map(workoutRows));
+        }
+    }
+
+    @Benchmark
+    public void mapExercisesByName(Blackhole bh) throws SQLException {
+        exerciseRows.beforeFirst();
+        while (exerciseRows.next()) {
+            Exercise e = new Exercise(
+                    exerciseRows.getInt("workout_id"),
+                    exerciseRows.getString("name"),
+                    exerciseRows.getInt("sets"),
+                    exerciseRows.getInt("reps")
+            );
+            e.setId(exerciseRows.getInt("id"));
+            bh.consume(e);
+        }
+    }
+
+    @Benchmark
+    public void mapExercises(Blackhole bh) throws SQLException {
+        exerciseRows.beforeFirst();
+        RowMapper<Exercise> mapper = ExerciseRowMapper.bind(exerciseRows);
+        while (exerciseRows.next()) {
+            bh.consume(mapper.map(exerciseRows));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package benchmark;
+
+import exception.DatabaseOperationException;
+import model.Workout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.WorkoutRepository;
+import service.IWorkoutService;
+import service.WorkoutService;
+import utils.DatabaseConnection;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private IWorkoutService workoutService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        H2Database.reset();
+        H2Database.seed(rows, 0);
+        WorkoutRepository repo = new WorkoutRepository();
+        workoutService = new WorkoutService(repo, repo, repo);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseConnection.shutdown();
+    }
+
+    @Benchmark
+    public List<Workout> getAllWorkoutsSortedByDuration() throws DatabaseOperationException {
+        return workoutService.getAllWorkoutsSortedByDuration();
+    }
+
+    @Benchmark
+    public List<Workout> getAllWorkouts() throws DatabaseOperationException {
+        return workoutService.getAllWorkouts();
+    }
+}
@@ -0,0 +1,83 @@
+package benchmark;
+
+import model.CardioWorkout;
+import model.StrengthWorkout;
+import model.Workout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.SortUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Every sort works on a fresh copy; copyOnly is the baseline to subtract
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SortUtilsBenchmark {
+
+    private static final String[] NAMES = {"Morning Run", "upper body", "Leg Day", "HIIT", "yoga flow", "Swim"};
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private List<Workout> workouts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        workouts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String name = NAMES[random.nextInt(NAMES.length)] + " " + random.nextInt(size);
+            int duration = 1 + random.nextInt(240);
+            workouts.add(i % 2 == 0 ? new CardioWorkout(i, name, duration) : new StrengthWorkout(i, name, duration));
+        }
+    }
+
+    @Benchmark
+    public List<Workout> copyOnly() {
+        return new ArrayList<>(workouts);
+    }
+
+    @Benchmark
+    public List<Workout> sortByDuration() {
+        List<Workout> copy = new ArrayList<>(workouts);
+        SortUtils.sortWorkoutsByDuration(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Workout> sortByName() {
+        List<Workout> copy = new ArrayList<>(workouts);
+        SortUtils.sortWorkoutsByName(copy);
+        return copy;
+    }
+
+    // the per-comparison compareToIgnoreCase sort SortUtils used before
+    @Benchmark
+    public List<Workout> sortByNameCompareToIgnoreCase() {
+        List<Workout> copy = new ArrayList<>(workouts);
+        copy.sort((a, b) -> a.getName().compareToIgnoreCase(b.getName()));
+        return copy;
+    }
+
+    @Benchmark
+    public List<Workout> top10ByDuration() {
+        return SortUtils.topKByDuration(workouts, 10);
+    }
+}
@@ -0,0 +1,5 @@
+-- Serves "shortest workout per type" (WHERE type = ? ORDER BY duration_minutes LIMIT 1)
+-- straight from the index instead of scanning the workout table.
+USE fitness_tracker;
+
+CREATE INDEX idx_workout_type_duration ON workout (type, duration_minutes);
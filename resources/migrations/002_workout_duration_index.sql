@@ -0,0 +1,4 @@
+-- Lets ORDER BY duration_minutes (WorkoutService.getAllWorkoutsSortedByDuration) read in index order.
+USE fitness_tracker;
+
+CREATE INDEX idx_workout_duration ON workout (duration_minutes);
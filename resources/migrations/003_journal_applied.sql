@@ -0,0 +1,10 @@
+-- Operation ids of local journal records already applied (MutationJournal / JournalReplayer),
+-- so replaying the journal after a crash or outage never applies a mutation twice.
+USE fitness_tracker;
+
+CREATE TABLE IF NOT EXISTS journal_applied (
+    op_id CHAR(36) PRIMARY KEY,
+    created_id INT NULL,
+    failed BOOLEAN NOT NULL DEFAULT FALSE,
+    applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+    );
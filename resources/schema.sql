@@ -5,7 +5,9 @@ CREATE TABLE IF NOT EXISTS workout (
     id INT AUTO_INCREMENT PRIMARY KEY,
     name VARCHAR(100) UNIQUE NOT NULL,
     type VARCHAR(50) NOT NULL,
-    duration_minutes INT NOT NULL
+    duration_minutes INT NOT NULL,
+    INDEX idx_workout_type_duration (type, duration_minutes),
+    INDEX idx_workout_duration (duration_minutes)
     );
 
 CREATE TABLE IF NOT EXISTS exercises (
@@ -17,6 +19,13 @@ CREATE TABLE IF NOT EXISTS exercises (
     FOREIGN KEY (workout_id) REFERENCES workout(id) ON DELETE CASCADE
     );
 
+CREATE TABLE IF NOT EXISTS journal_applied (
+    op_id CHAR(36) PRIMARY KEY,
+    created_id INT NULL,
+    failed BOOLEAN NOT NULL DEFAULT FALSE,
+    applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+    );
+
 INSERT INTO workout (name, type, duration_minutes)
 VALUES ('Morning Run', 'CARDIO', 30);
 
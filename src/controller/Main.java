@@ -2,28 +2,241 @@ package controller;
 
 import exception.*;
 import model.*;
+import service.BulkImportService;
 import service.ExerciseService;
+import service.ImportReport;
+import service.WorkoutStatsService;
 import service.WorkoutService;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Scanner;
+import utils.DatabaseConnection;
+import utils.Instrumentation;
+import utils.MetricsRegistry;
+import utils.SqlTrace;
 import utils.ReflectionUtils;
+import repository.BulkImportRepository;
+import repository.BulkImportWriter;
+import repository.CachingRepository;
+import repository.CrudRepository;
+import repository.ExerciseBatchWriter;
+import repository.ExerciseQueries;
 import repository.ExerciseRepository;
+import repository.ExerciseSummaryIndex;
+import repository.ExerciseSummaryLookup;
+import repository.InMemoryBulkImportRepository;
+import repository.InMemoryDatabase;
+import repository.InMemoryExerciseRepository;
+import repository.InMemoryWorkoutRepository;
+import repository.JournalAppliedRepository;
+import repository.JournalRecord;
+import repository.JournalReplayer;
+import repository.JournalingExerciseRepository;
+import repository.JournalingWorkoutRepository;
+import repository.MutationJournal;
+import repository.ShortestWorkoutIndex;
+import repository.SnapshotExerciseRepository;
+import repository.SnapshotWorkoutRepository;
+import repository.TypeStats;
+import repository.WorkoutLookup;
+import repository.WorkoutNameIndex;
+import repository.WorkoutQueries;
 import repository.WorkoutRepository;
+import repository.WorkoutStatsQueries;
+import repository.WorkoutStatsRepository;
+import repository.WarmStartSnapshot;
+import repository.WorkoutVolume;
+import repository.WriteBehindExerciseRepository;
+import service.IBulkImportService;
 import service.IWorkoutService;
 import service.IExerciseService;
+import service.IWorkoutStatsService;
+import utils.TransactionTemplate;
 
 public class Main {
 
-    private static final WorkoutRepository workoutRepo = new WorkoutRepository();
-    private static final ExerciseRepository exerciseRepo = new ExerciseRepository();
+    // Run with -Dfitness.storage=memory to use the in-memory engine instead of MySQL
+    private static final boolean IN_MEMORY = "memory".equalsIgnoreCase(System.getProperty("fitness.storage"));
+
+    private static final CrudRepository<Workout> workoutRepo;
+    private static final WorkoutQueries workoutQueries;
+    private static final WorkoutLookup workoutLookup;
+    private static final WorkoutStatsQueries workoutStats;
+    private static final CrudRepository<Exercise> exerciseRepo;
+    private static final ExerciseQueries exerciseQueries;
+    private static final ExerciseBatchWriter exerciseWriter;
+    private static final ExerciseSummaryLookup exerciseSummaryQueries;
+    private static final WarmStartSnapshot snapshot;
+    private static final BulkImportWriter importWriter;
+    private static final MetricsRegistry metrics = new MetricsRegistry();
+
+    static {
+        CrudRepository<Workout> workoutStore;
+        WorkoutQueries workoutQueryStore;
+        WorkoutLookup workoutLookupStore;
+        WorkoutStatsQueries workoutStatsStore;
+        CrudRepository<Exercise> exerciseStore;
+        ExerciseQueries exerciseQueryStore;
+        ExerciseBatchWriter exerciseWriterStore;
+        ExerciseSummaryLookup exerciseSummaryStore;
+        BulkImportWriter importStore;
+
+        if (IN_MEMORY) {
+            InMemoryDatabase db = new InMemoryDatabase();
+            InMemoryWorkoutRepository workouts = new InMemoryWorkoutRepository(db);
+            InMemoryExerciseRepository exercises = new InMemoryExerciseRepository(db);
+            workoutStore = workouts;
+            workoutQueryStore = workouts;
+            workoutLookupStore = workouts;
+            workoutStatsStore = workouts;
+            exerciseStore = exercises;
+            exerciseQueryStore = exercises;
+            exerciseWriterStore = exercises;
+            exerciseSummaryStore = exercises;
+            importStore = new InMemoryBulkImportRepository(db);
+            snapshot = null;
+        } else {
+            WorkoutRepository workouts = new WorkoutRepository();
+            ExerciseRepository exercises = new ExerciseRepository();
+            workoutQueryStore = workouts;
+            workoutLookupStore = workouts;
+            workoutStatsStore = new WorkoutStatsRepository();
+            exerciseSummaryStore = exercises;
+            importStore = new BulkImportRepository();
+
+            // Run with -Dfitness.snapshot=<file> to prime the caches from a mapped snapshot at startup
+            String snapshotFile = System.getProperty("fitness.snapshot");
+            if (snapshotFile != null && !snapshotFile.isBlank()) {
+                snapshot = new WarmStartSnapshot(Path.of(snapshotFile), workouts, exercises);
+                SnapshotExerciseRepository snapshotExercises =
+                        new SnapshotExerciseRepository(exercises, exercises, exercises, snapshot);
+                workoutStore = new SnapshotWorkoutRepository(workouts, snapshot);
+                exerciseStore = snapshotExercises;
+                exerciseQueryStore = snapshotExercises;
+                exerciseWriterStore = snapshotExercises;
+            } else {
+                snapshot = null;
+                workoutStore = workouts;
+                exerciseStore = exercises;
+                exerciseQueryStore = exercises;
+                exerciseWriterStore = exercises;
+            }
+        }
+
+        // every storage call is timed; see the "Performance metrics" menu option
+        workoutRepo = Instrumentation.wrap(CrudRepository.class, workoutStore, "workouts", metrics);
+        workoutQueries = Instrumentation.wrap(WorkoutQueries.class, workoutQueryStore, "workouts", metrics);
+        workoutLookup = Instrumentation.wrap(WorkoutLookup.class, workoutLookupStore, "workouts", metrics);
+        workoutStats = Instrumentation.wrap(WorkoutStatsQueries.class, workoutStatsStore, "workoutStats", metrics);
+        exerciseRepo = Instrumentation.wrap(CrudRepository.class, exerciseStore, "exercises", metrics);
+        exerciseQueries = Instrumentation.wrap(ExerciseQueries.class, exerciseQueryStore, "exercises", metrics);
+        exerciseWriter = Instrumentation.wrap(ExerciseBatchWriter.class, exerciseWriterStore, "exercises", metrics);
+        exerciseSummaryQueries =
+                Instrumentation.wrap(ExerciseSummaryLookup.class, exerciseSummaryStore, "exercises", metrics);
+        importWriter = Instrumentation.wrap(BulkImportWriter.class, importStore, "import", metrics);
+    }
 
-    private static final IWorkoutService workoutService = new WorkoutService(workoutRepo, workoutRepo, workoutRepo);
-    private static final IExerciseService exerciseService = new ExerciseService(exerciseRepo, workoutRepo, exerciseRepo);
+    private static final CachingRepository<Workout> workoutCache =
+            new CachingRepository<>(workoutRepo, Main::copyWorkout, 1_000, 60_000);
+    private static final CachingRepository<Exercise> exerciseCache =
+            new CachingRepository<>(exerciseRepo, Main::copyExercise, 5_000, 60_000);
+    private static final ExerciseSummaryIndex exerciseSummaries =
+            new ExerciseSummaryIndex(exerciseCache, exerciseWriter, exerciseSummaryQueries);
+
+    static {
+        // ON DELETE CASCADE removes a workout's exercises in the DB, so drop them from the cache too
+        workoutCache.addDeleteListener(workoutId -> exerciseCache.invalidateIf(e -> e.getWorkoutId() == workoutId));
+        workoutCache.addDeleteListener(exerciseSummaries::removeWorkout);
+    }
+
+    private static final WorkoutNameIndex workoutNames = new WorkoutNameIndex(workoutCache, workoutLookup);
+
+    private static final ShortestWorkoutIndex shortestWorkouts =
+            new ShortestWorkoutIndex(workoutNames, workoutQueries, Main::copyWorkout);
+
+    // Run with -Dfitness.journal=<file> to acknowledge writes once they are in the journal and apply them
+    // to MySQL in the background; records left over from a crash are applied at startup
+    private static final JournalReplayer journalReplayer = openJournal(System.getProperty("fitness.journal"));
+    private static final JournalingWorkoutRepository journalWorkouts = journalReplayer != null
+            ? new JournalingWorkoutRepository(shortestWorkouts, shortestWorkouts, workoutNames, journalReplayer) : null;
+    private static final JournalingExerciseRepository journalExercises = journalReplayer != null
+            ? new JournalingExerciseRepository(exerciseSummaries, exerciseQueries, exerciseSummaries,
+                    journalWorkouts, journalReplayer) : null;
+
+    private static final IWorkoutService workoutService = Instrumentation.wrap(IWorkoutService.class,
+            journalWorkouts != null
+                    ? new WorkoutService(journalWorkouts, journalWorkouts, journalWorkouts, journalExercises, true)
+                    : new WorkoutService(shortestWorkouts, shortestWorkouts, workoutNames, exerciseSummaries),
+            "WorkoutService", metrics);
+
+    // Run with -Dfitness.writeBehind=true to queue single exercise inserts and write them in batches
+    private static final WriteBehindExerciseRepository exerciseWriteBehind =
+            journalReplayer == null && Boolean.getBoolean("fitness.writeBehind")
+            ? new WriteBehindExerciseRepository(exerciseSummaries, exerciseSummaries, exerciseQueries,
+                    Main::reportUnsavedExercise, 10_000, 500, 200, 2_000)
+            : null;
+
+    private static final IExerciseService exerciseService;
+
+    static {
+        IExerciseService service;
+        if (journalExercises != null) {
+            service = new ExerciseService(journalExercises, journalExercises, journalExercises, true);
+        } else if (exerciseWriteBehind != null) {
+            service = new ExerciseService(exerciseWriteBehind, exerciseWriteBehind, exerciseSummaries, true);
+        } else {
+            service = new ExerciseService(exerciseSummaries, exerciseQueries, exerciseSummaries);
+        }
+        exerciseService = Instrumentation.wrap(IExerciseService.class, service, "ExerciseService", metrics);
+    }
+    private static final IWorkoutStatsService statsService = Instrumentation.wrap(IWorkoutStatsService.class,
+            new WorkoutStatsService(workoutStats), "WorkoutStatsService", metrics);
+    private static final IBulkImportService importService = Instrumentation.wrap(IBulkImportService.class,
+            new BulkImportService(importWriter), "BulkImportService", metrics);
 
     private static final Scanner scanner = new Scanner(System.in);
 
     public static void main(String[] args) {
 
+        // Run with -Dfitness.sqlTrace=<ms> to keep the last 1000 statements that took at least that long
+        Long traceThreshold = Long.getLong("fitness.sqlTrace");
+        if (traceThreshold != null) SqlTrace.enable(traceThreshold, 1_000);
+
+        if (snapshot != null && snapshot.load()) {
+            System.out.println("Serving saved data from the snapshot until the database is reachable");
+        }
+
+        try {
+            workoutNames.load();
+        } catch (DatabaseOperationException e) {
+            System.out.println("Workout name index not loaded, duplicate checks will query the DB: " + e.getMessage());
+        }
+
+        try {
+            shortestWorkouts.load();
+        } catch (DatabaseOperationException e) {
+            System.out.println("Shortest-workout index not loaded, queries will go to the DB: " + e.getMessage());
+        }
+
+        try {
+            exerciseSummaries.load();
+        } catch (DatabaseOperationException e) {
+            System.out.println("Exercise summaries not loaded, they will be computed by the DB: " + e.getMessage());
+        }
+        exerciseSummaries.startRebuildJob(5 * 60_000);
+
+        if (snapshot != null) {
+            snapshot.startCatchUp(5_000, Main::reloadFromDatabase);
+            snapshot.startSaveJob(10 * 60_000);
+        }
+
+        if (journalReplayer != null) {
+            int recovered = journalReplayer.getUnappliedCount();
+            if (recovered > 0) System.out.println("Applying " + recovered + " journaled change(s) from the last run");
+            journalReplayer.start(1_000);
+        }
+
         while (true) {
             try {
                 System.out.println("\n===== FITNESS TRACKER MENU =====");
@@ -39,16 +252,20 @@ public class Main {
                 System.out.println("10. Update Exercise");
                 System.out.println("11. View Exercise By ID");
                 System.out.println("12. Demo: Reflection + Interfaces default/static");
-                System.out.println("13. Shortest Cardio and Strength workouts");
+                System.out.println("13. Shortest workout of each type");
                 System.out.println("14. View All Workouts sorted by duration");
+                System.out.println("15. Workout statistics");
+                System.out.println("16. Performance metrics");
+                System.out.println("17. Slow SQL log");
+                System.out.println("18. Bulk import workouts and exercises (CSV / JSON lines)");
                 System.out.println("0. Exit");
 
                 System.out.print("Choose option: ");
                 int choice = Integer.parseInt(scanner.nextLine());
 
                 switch (choice) {
-                    case 1 -> createWorkout(true);
-                    case 2 -> createWorkout(false);
+                    case 1 -> createWorkout(WorkoutType.CARDIO);
+                    case 2 -> createWorkout(WorkoutType.STRENGTH);
                     case 3 -> viewAllWorkouts();
                     case 4 -> viewWorkoutById();
                     case 5 -> updateWorkout();
@@ -61,9 +278,18 @@ public class Main {
                     case 12 -> demoOopRequirements();
                     case 13 -> viewShortestAll();
                     case 14 -> viewAllWorkoutsSorted();
+                    case 15 -> viewStats();
+                    case 16 -> System.out.print(metrics.report());
+                    case 17 -> System.out.print(SqlTrace.report());
+                    case 18 -> importFile();
 
                     case 0 -> {
                         System.out.println("Goodbye!");
+                        if (exerciseWriteBehind != null) exerciseWriteBehind.shutdown();
+                        if (journalReplayer != null) journalReplayer.shutdown();
+                        exerciseSummaries.shutdown();
+                        if (snapshot != null) saveSnapshot();
+                        DatabaseConnection.shutdown();
                         return;
                     }
                     default -> System.out.println("Invalid option!");
@@ -76,7 +302,7 @@ public class Main {
     }
 
     // CREATE WORKOUT
-    private static void createWorkout(boolean isCardio)
+    private static void createWorkout(WorkoutType type)
             throws InvalidInputException, DatabaseOperationException {
 
         System.out.print("Enter workout name: ");
@@ -85,27 +311,22 @@ public class Main {
         System.out.print("Enter duration (minutes): ");
         int duration = Integer.parseInt(scanner.nextLine());
 
-        Workout workout;
-
-        if (isCardio) {
-            workout = new CardioWorkout(name, duration);
-        } else {
-            workout = new StrengthWorkout(name, duration);
-        }
+        Workout workout = type.create(name, duration);
 
         workoutService.createWorkout(workout);
         System.out.println("Workout created successfully!");
     }
 
     // VIEW ALL WORKOUTS
-    private static void viewAllWorkouts() throws DatabaseOperationException {
+    private static void viewAllWorkouts() throws InvalidInputException, DatabaseOperationException {
         List<Workout> workouts = workoutService.getAllWorkouts();
         for (Workout w : workouts) {
             System.out.println(
                     w.getId() + " | " +
                             w.getName() + " | " +
                             w.getWorkoutType() + " | " +
-                            w.getDuration() + " min"
+                            w.getDuration() + " min | " +
+                            workoutService.getExerciseSummary(w.getId())
             );
         }
     }
@@ -123,22 +344,34 @@ public class Main {
         }
     }
 
-    private static void viewShortestAll() throws DatabaseOperationException {
-        Workout w1 = workoutService.getShortestS();
-        Workout w2 = workoutService.getShortestC();
-        System.out.println(
-                w1.getId() + " | " +
-                        w1.getName() + " | " +
-                        w1.getWorkoutType() + " | " +
-                        w1.getDuration() + " min"
-        );
-        System.out.println(
-                w2.getId() + " | " +
-                        w2.getName() + " | " +
-                        w2.getWorkoutType() + " | " +
-                        w2.getDuration() + " min"
-        );
+    private static void viewShortestAll() throws InvalidInputException, DatabaseOperationException {
+        for (WorkoutType type : WorkoutType.values()) {
+            Workout w = workoutService.getShortestByType(type.getCode());
+            if (w == null) {
+                System.out.println(type + " | no workouts");
+                continue;
+            }
+            System.out.println(
+                    w.getId() + " | " +
+                            w.getName() + " | " +
+                            w.getWorkoutType() + " | " +
+                            w.getDuration() + " min"
+            );
+        }
+    }
+
+    // STATISTICS
+    private static void viewStats() throws DatabaseOperationException {
+        System.out.println("--- Per type ---");
+        for (TypeStats stats : statsService.getStatsByType()) {
+            System.out.println(stats);
+        }
+        System.out.println("Total calories: " + String.format("%.1f", statsService.getTotalCalories()));
 
+        System.out.println("--- Volume per workout (sets x reps) ---");
+        for (WorkoutVolume volume : statsService.getVolumePerWorkout()) {
+            System.out.println(volume);
+        }
     }
 
     // VIEW BY WORKOUT ID
@@ -302,4 +535,106 @@ public class Main {
         System.out.println("\n--- Reflection Demo ---");
         ReflectionUtils.printClassInfo(w1);
     }
+
+    // Write-behind failures happen after addExercise has returned, so they are reported here
+    private static void reportUnsavedExercise(int provisionalId, Exercise exercise, DatabaseOperationException error) {
+        System.out.println("\nExercise '" + exercise.getName() + "' (provisional id " + provisionalId
+                + ") for workout " + exercise.getWorkoutId() + " was not saved: " + error.getMessage());
+    }
+
+    // Journaled changes are applied after the menu action has returned, so rejections are reported here
+    private static void reportUnappliedChange(JournalRecord record, DatabaseOperationException error) {
+        System.out.println("\nJournaled change " + record + " was not applied: " + error.getMessage());
+    }
+
+    // BULK IMPORT
+    private static void importFile() throws InvalidInputException, DatabaseOperationException {
+        System.out.print("Enter path of a .csv or .jsonl file: ");
+        Path file = Path.of(scanner.nextLine().trim());
+
+        applyPendingWrites();
+
+        // imported rows bypass the snapshot, caches and indexes, so those are reloaded afterwards
+        if (snapshot != null) snapshot.release();
+        ImportReport report;
+        try {
+            report = importService.importFile(file);
+        } catch (Exception e) {
+            // part of the file may be in already; reload anyway, but a reload failure must not hide why the import failed
+            try {
+                reloadFromDatabase();
+            } catch (DatabaseOperationException | RuntimeException reloadError) {
+                e.addSuppressed(reloadError);
+            }
+            throw e;
+        }
+        reloadFromDatabase();
+
+        System.out.println("Import finished: " + report);
+        for (ImportReport.Rejection rejection : report.getRejections()) {
+            System.out.println("  rejected " + rejection);
+        }
+        long unlisted = report.getRejectedCount() - report.getRejections().size();
+        if (unlisted > 0) System.out.println("  ... and " + unlisted + " more rejected rows");
+    }
+
+    // The import writes straight to the database and dedupes names against what is stored there, so a
+    // journaled or queued row would slip past it and fail later; write those first, refuse if that fails
+    private static void applyPendingWrites() throws DatabaseOperationException {
+        int waiting = 0;
+        if (exerciseWriteBehind != null) {
+            exerciseWriteBehind.flush();
+            waiting += exerciseWriteBehind.getPendingCount();
+        }
+        if (journalReplayer != null) {
+            journalReplayer.replay();
+            waiting += journalReplayer.getUnappliedCount();
+        }
+        if (waiting > 0) {
+            throw new DatabaseOperationException("Import refused: " + waiting
+                    + " change(s) are still waiting to be written, try again shortly", null);
+        }
+    }
+
+    // The caches and indexes were primed from the snapshot; replace that with what the database has now
+    private static void reloadFromDatabase() throws DatabaseOperationException {
+        workoutCache.invalidateAll();
+        exerciseCache.invalidateAll();
+        workoutNames.load();
+        shortestWorkouts.load();
+        exerciseSummaries.rebuild();
+    }
+
+    private static void saveSnapshot() {
+        snapshot.shutdown();
+        try {
+            snapshot.save();
+        } catch (DatabaseOperationException e) {
+            System.out.println("Snapshot not saved: " + e.getMessage());
+        }
+    }
+
+    private static JournalReplayer openJournal(String file) {
+        if (file == null || file.isBlank()) return null;
+        if (IN_MEMORY) {
+            System.out.println("fitness.journal is ignored with the in-memory engine");
+            return null;
+        }
+        try {
+            return new JournalReplayer(MutationJournal.open(Path.of(file)), shortestWorkouts, exerciseSummaries,
+                    new JournalAppliedRepository(), new TransactionTemplate(), Main::reportUnappliedChange);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open journal " + file, e);
+        }
+    }
+
+    private static Workout copyWorkout(Workout w) {
+        return w.getType().create(w.getId(), w.getName(), w.getDuration());
+    }
+
+    private static Exercise copyExercise(Exercise e) {
+        Exercise copy = new Exercise(e.getWorkoutId(), e.getName(), e.getSets(), e.getReps());
+        copy.setId(e.getId());
+        return copy;
+    }
 }
@@ -0,0 +1,8 @@
+package exception;
+
+// A write was rejected by a UNIQUE constraint in the database
+public class DuplicateKeyException extends DatabaseOperationException {
+    public DuplicateKeyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
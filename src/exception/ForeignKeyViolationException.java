@@ -0,0 +1,8 @@
+package exception;
+
+// A write referenced a row that does not exist (FOREIGN KEY constraint)
+public class ForeignKeyViolationException extends DatabaseOperationException {
+    public ForeignKeyViolationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
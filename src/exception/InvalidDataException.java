@@ -0,0 +1,8 @@
+package exception;
+
+// A write was rejected because a value does not fit its column (too long, out of range)
+public class InvalidDataException extends DatabaseOperationException {
+    public InvalidDataException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,8 @@
+package exception;
+
+// Thrown from inside lazily-consumed streams, where DatabaseOperationException cannot be declared
+public class UncheckedDatabaseException extends RuntimeException {
+    public UncheckedDatabaseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
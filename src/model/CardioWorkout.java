@@ -1,6 +1,8 @@
 package model;
 public class CardioWorkout extends Workout{
 
+    public static final double CALORIES_PER_MINUTE = 6.5;
+
     public CardioWorkout(String name, int duration) {
         super(name, duration);
     }
@@ -8,9 +10,19 @@ public class CardioWorkout extends Workout{
         super(name, duration);
         setId(id);
     }
+
+    private CardioWorkout(int id, String name, int duration, boolean trusted) {
+        super(id, name, duration, trusted);
+    }
+
+    // No validation: only for values that come from storage
+    public static CardioWorkout trusted(int id, String name, int duration) {
+        return new CardioWorkout(id, name, duration, true);
+    }
+
     @Override
     public double calculateCalories(){
-        return getDuration()*6.5;
+        return getDuration()*CALORIES_PER_MINUTE;
     }
     @Override
     public String getWorkoutType(){
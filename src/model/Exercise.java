@@ -14,6 +14,20 @@ public class Exercise {
         setReps(reps);
     }
 
+    private Exercise() {
+    }
+
+    // No validation: only for values that come from storage
+    public static Exercise trusted(int id, int workoutId, String name, int sets, int reps) {
+        Exercise exercise = new Exercise();
+        exercise.id = id;
+        exercise.workoutId = workoutId;
+        exercise.name = name;
+        exercise.sets = sets;
+        exercise.reps = reps;
+        return exercise;
+    }
+
     public int getId() {return id;}
 
     public void setId(int id) {
@@ -1,6 +1,8 @@
 package model;
 public class StrengthWorkout extends Workout {
 
+    public static final double CALORIES_PER_MINUTE = 3.5;
+
     public StrengthWorkout( String name, int duration) {
         super(name, duration);
     }
@@ -9,9 +11,18 @@ public class StrengthWorkout extends Workout {
         setId(id);
     }
 
+    private StrengthWorkout(int id, String name, int duration, boolean trusted) {
+        super(id, name, duration, trusted);
+    }
+
+    // No validation: only for values that come from storage
+    public static StrengthWorkout trusted(int id, String name, int duration) {
+        return new StrengthWorkout(id, name, duration, true);
+    }
+
     @Override
     public double calculateCalories(){
-        return getDuration()*3.5;
+        return getDuration()*CALORIES_PER_MINUTE;
     }
 
     @Override
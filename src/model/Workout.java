@@ -13,10 +13,24 @@ public abstract class Workout implements IValidatable, ITrackable {
         this.exercises = new ArrayList<>();
     }
 
+    // Trusted construction for rows read back from storage, which were validated on the way in:
+    // the setters' checks are skipped. Used through the subclasses' trusted() factories.
+    Workout(int id, String name, int duration, boolean trusted) {
+        this.id = id;
+        this.name = name;
+        this.duration = duration;
+        this.exercises = new ArrayList<>();
+    }
+
 //abstract methods
     public abstract double calculateCalories();
     public abstract String getWorkoutType();
 
+    // Registry entry for getWorkoutType()
+    public WorkoutType getType() {
+        return WorkoutType.require(getWorkoutType());
+    }
+
 //concrete methods
     public void WorkoutInfo(){
         System.out.println("Workout name: " + name+" | Duration: " + duration+" minutes.");
@@ -0,0 +1,93 @@
+package model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Registry of Workout subclasses. Each one registers its type code (the value stored in the
+// workout.type column), its factories and its calorie multiplier once, and storage code looks
+// the type up with of(code) - one hash lookup - instead of comparing strings per subclass.
+// A new subclass registers itself with register(...) from a static initializer; the class
+// must be loaded before rows of its type are read.
+public final class WorkoutType {
+
+    public interface Factory {
+        Workout create(int id, String name, int duration);
+    }
+
+    private static final Map<String, WorkoutType> BY_CODE = new ConcurrentHashMap<>();
+    private static final List<WorkoutType> ALL = new CopyOnWriteArrayList<>();
+
+    public static final WorkoutType CARDIO =
+            register("CARDIO", CardioWorkout::new, CardioWorkout::trusted, CardioWorkout.CALORIES_PER_MINUTE);
+    public static final WorkoutType STRENGTH =
+            register("STRENGTH", StrengthWorkout::new, StrengthWorkout::trusted, StrengthWorkout.CALORIES_PER_MINUTE);
+
+    private final String code;
+    private final Factory factory;
+    private final Factory trustedFactory;
+    private final double caloriesPerMinute;
+
+    private WorkoutType(String code, Factory factory, Factory trustedFactory, double caloriesPerMinute) {
+        this.code = code;
+        this.factory = factory;
+        this.trustedFactory = trustedFactory;
+        this.caloriesPerMinute = caloriesPerMinute;
+    }
+
+    // factory validates like the constructors; trustedFactory skips validation for rows read from storage
+    public static synchronized WorkoutType register(String code, Factory factory, Factory trustedFactory,
+                                                    double caloriesPerMinute) {
+        if (code == null || code.isBlank()) throw new IllegalArgumentException("Workout type code cannot be empty");
+        String key = code.toUpperCase(Locale.ROOT);
+        if (BY_CODE.containsKey(key)) throw new IllegalArgumentException("Workout type already registered: " + key);
+
+        WorkoutType type = new WorkoutType(key, factory, trustedFactory, caloriesPerMinute);
+        BY_CODE.put(key, type);
+        ALL.add(type);
+        return type;
+    }
+
+    // null if no type has this code; codes are case-insensitive
+    public static WorkoutType of(String code) {
+        if (code == null) return null;
+        WorkoutType type = BY_CODE.get(code);
+        // codes are stored upper case; anything else takes the slow path
+        return type != null ? type : BY_CODE.get(code.toUpperCase(Locale.ROOT));
+    }
+
+    public static WorkoutType require(String code) {
+        WorkoutType type = of(code);
+        if (type == null) throw new IllegalArgumentException("Unknown workout type: " + code);
+        return type;
+    }
+
+    // In registration order
+    public static List<WorkoutType> values() {
+        return Collections.unmodifiableList(ALL);
+    }
+
+    public String getCode() {return code;}
+    public double getCaloriesPerMinute() {return caloriesPerMinute;}
+
+    public Workout create(String name, int duration) {
+        return factory.create(0, name, duration);
+    }
+
+    public Workout create(int id, String name, int duration) {
+        return factory.create(id, name, duration);
+    }
+
+    // No validation: only for values that come from storage
+    public Workout fromStorage(int id, String name, int duration) {
+        return trustedFactory.create(id, name, duration);
+    }
+
+    @Override
+    public String toString() {
+        return code;
+    }
+}
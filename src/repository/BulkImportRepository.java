@@ -0,0 +1,116 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import exception.DuplicateKeyException;
+import exception.ForeignKeyViolationException;
+import exception.InvalidDataException;
+import model.Exercise;
+import model.Workout;
+import utils.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+// JDBC BulkImportWriter: every call is one multi-row INSERT (VALUES (...), (...), ...) on a pooled
+// connection, so a batch is a single statement and a single round trip on any driver.
+public class BulkImportRepository implements BulkImportWriter {
+
+    private static final String WORKOUT_INSERT = "INSERT INTO workout (name, type, duration_minutes) VALUES ";
+    private static final String EXERCISE_INSERT = "INSERT INTO exercises (workout_id, name, sets, reps) VALUES ";
+
+    @Override
+    public void loadWorkoutIds(ObjIntConsumer<String> sink) throws DatabaseOperationException {
+        String sql = "SELECT id, name FROM workout";
+
+        try (
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)
+        ) {
+            ps.setFetchSize(ResultSetStreams.FETCH_SIZE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    sink.accept(rs.getString(2), rs.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error loading workout names", e);
+        }
+    }
+
+    @Override
+    public void insertWorkouts(List<Workout> workouts) throws DatabaseOperationException {
+        if (workouts.isEmpty()) return;
+        String sql = multiRowInsert(WORKOUT_INSERT, 3, workouts.size());
+
+        try (
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+        ) {
+            int p = 1;
+            for (Workout workout : workouts) {
+                ps.setString(p++, workout.getName());
+                ps.setString(p++, workout.getWorkoutType());
+                ps.setInt(p++, workout.getDuration());
+            }
+            ps.executeUpdate();
+
+            int[] ids = new int[workouts.size()];
+            int i = 0;
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                while (i < ids.length && rs.next()) {
+                    ids[i++] = rs.getInt(1);
+                }
+            }
+            if (i != ids.length) {
+                throw new DatabaseOperationException("Expected " + ids.length + " generated ids, got " + i, null);
+            }
+            for (i = 0; i < ids.length; i++) {
+                workouts.get(i).setId(ids[i]);
+            }
+        } catch (SQLException e) {
+            if (SqlErrors.isDuplicateKey(e)) throw new DuplicateKeyException("Workout name already exists", e);
+            if (SqlErrors.isDataException(e)) throw new InvalidDataException("Workout value does not fit its column", e);
+            throw new DatabaseOperationException("Error importing workouts", e);
+        }
+    }
+
+    // Generated ids are not read back: nothing in an import refers to an exercise
+    @Override
+    public void insertExercises(List<Exercise> exercises) throws DatabaseOperationException {
+        if (exercises.isEmpty()) return;
+        String sql = multiRowInsert(EXERCISE_INSERT, 4, exercises.size());
+
+        try (
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)
+        ) {
+            int p = 1;
+            for (Exercise exercise : exercises) {
+                ps.setInt(p++, exercise.getWorkoutId());
+                ps.setString(p++, exercise.getName());
+                ps.setInt(p++, exercise.getSets());
+                ps.setInt(p++, exercise.getReps());
+            }
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            if (SqlErrors.isForeignKeyViolation(e)) throw new ForeignKeyViolationException("Workout does not exist", e);
+            if (SqlErrors.isDataException(e)) throw new InvalidDataException("Exercise value does not fit its column", e);
+            throw new DatabaseOperationException("Error importing exercises", e);
+        }
+    }
+
+    private static String multiRowInsert(String prefix, int columns, int rows) {
+        String row = "(?" + ", ?".repeat(columns - 1) + ")";
+        StringBuilder sql = new StringBuilder(prefix.length() + rows * (row.length() + 2)).append(prefix);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(row);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,21 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import model.Exercise;
+import model.Workout;
+
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+// Writes used by the bulk import. Each insert call is all or nothing and may run concurrently
+// with other calls, each on its own connection.
+public interface BulkImportWriter {
+    // Passes (name, id) of every stored workout
+    void loadWorkoutIds(ObjIntConsumer<String> sink) throws DatabaseOperationException;
+
+    // Sets each workout's generated id; DuplicateKeyException if any name is taken
+    void insertWorkouts(List<Workout> workouts) throws DatabaseOperationException;
+
+    // ForeignKeyViolationException if any workout id does not exist
+    void insertExercises(List<Exercise> exercises) throws DatabaseOperationException;
+}
@@ -0,0 +1,40 @@
+package repository;
+
+// Point-in-time snapshot of CachingRepository counters
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long sizeEvictions;
+    private final long expirations;
+    private final long invalidations;
+    private final int size;
+
+    public CacheStats(long hits, long misses, long sizeEvictions, long expirations, long invalidations, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.sizeEvictions = sizeEvictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+        this.size = size;
+    }
+
+    public long getHits() {return hits;}
+    public long getMisses() {return misses;}
+    public long getSizeEvictions() {return sizeEvictions;}
+    public long getExpirations() {return expirations;}
+    public long getInvalidations() {return invalidations;}
+    public int getSize() {return size;}
+
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "size=" + size + " | hits=" + hits + " | misses=" + misses
+                + " | hitRate=" + String.format("%.1f", getHitRate() * 100) + "%"
+                + " | evicted=" + sizeEvictions + " | expired=" + expirations
+                + " | invalidated=" + invalidations;
+    }
+}
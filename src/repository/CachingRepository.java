@@ -0,0 +1,188 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import utils.DatabaseConnection;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+// Read-through cache in front of another CrudRepository.
+// getById is served from memory when possible; update/delete invalidate the entry.
+// Entries are evicted least-recently-used once maxSize is reached, and expire after ttlMillis.
+// Callers get copies (copyOf), so mutating a returned entity never changes the cached one.
+public class CachingRepository<T> implements CrudRepository<T> {
+
+    private final CrudRepository<T> delegate;
+    private final UnaryOperator<T> copyOf;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<Integer, Entry<T>> entries;
+    private final List<IntConsumer> deleteListeners = new ArrayList<>();
+
+    // bumped on every invalidation so a load that raced with a write is not cached
+    private long version;
+    private long hits;
+    private long misses;
+    private long sizeEvictions;
+    private long expirations;
+    private long invalidations;
+
+    public CachingRepository(CrudRepository<T> delegate, UnaryOperator<T> copyOf, int maxSize, long ttlMillis) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be > 0");
+        if (ttlMillis <= 0) throw new IllegalArgumentException("ttlMillis must be > 0");
+        this.delegate = delegate;
+        this.copyOf = copyOf;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry<T>> eldest) {
+                if (size() <= CachingRepository.this.maxSize) return false;
+                sizeEvictions++;
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public void create(T entity) throws DatabaseOperationException {
+        delegate.create(entity);
+    }
+
+    @Override
+    public List<T> getAll() throws DatabaseOperationException {
+        return delegate.getAll();
+    }
+
+    @Override
+    public T getById(int id) throws DatabaseOperationException {
+        // inside a transaction the row may be uncommitted, so neither serve nor fill the cache
+        if (DatabaseConnection.currentTransaction() != null) return delegate.getById(id);
+
+        long loadVersion;
+        synchronized (this) {
+            Entry<T> entry = entries.get(id);
+            if (entry != null) {
+                if (entry.expiresAt > System.currentTimeMillis()) {
+                    hits++;
+                    return copyOf.apply(entry.value);
+                }
+                entries.remove(id);
+                expirations++;
+            }
+            misses++;
+            loadVersion = version;
+        }
+
+        T loaded = delegate.getById(id);
+
+        if (loaded != null) {
+            synchronized (this) {
+                if (version == loadVersion) {
+                    entries.put(id, new Entry<>(copyOf.apply(loaded), System.currentTimeMillis() + ttlMillis));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public void update(int id, T entity) throws DatabaseOperationException {
+        updateReturningCount(id, entity);
+    }
+
+    @Override
+    public int updateReturningCount(int id, T entity) throws DatabaseOperationException {
+        int updated;
+        try {
+            updated = delegate.updateReturningCount(id, entity);
+        } finally {
+            invalidate(id);
+        }
+        // readers may have cached the old row before the commit
+        if (updated > 0) DatabaseConnection.afterCommit(() -> invalidate(id));
+        return updated;
+    }
+
+    @Override
+    public void delete(int id) throws DatabaseOperationException {
+        deleteIfExists(id);
+    }
+
+    @Override
+    public boolean deleteIfExists(int id) throws DatabaseOperationException {
+        boolean deleted;
+        try {
+            deleted = delegate.deleteIfExists(id);
+        } finally {
+            invalidate(id);
+        }
+        if (!deleted) return false;
+        DatabaseConnection.afterCommit(() -> {
+            invalidate(id);
+            for (IntConsumer listener : deleteListeners) {
+                listener.accept(id);
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public List<T> getPage(int afterId, int limit) throws DatabaseOperationException {
+        return delegate.getPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<T> streamAll() throws DatabaseOperationException {
+        return delegate.streamAll();
+    }
+
+    public synchronized void invalidate(int id) {
+        version++;
+        if (entries.remove(id) != null) invalidations++;
+    }
+
+    // For rows removed behind the cache's back, e.g. exercises deleted by ON DELETE CASCADE
+    public synchronized void invalidateIf(Predicate<T> condition) {
+        version++;
+        Iterator<Entry<T>> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (condition.test(it.next().value)) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        version++;
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    // Called with the id after every successful delete
+    public void addDeleteListener(IntConsumer listener) {
+        deleteListeners.add(listener);
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, sizeEvictions, expirations, invalidations, entries.size());
+    }
+
+    private static class Entry<T> {
+        private final T value;
+        private final long expiresAt;
+
+        private Entry(T value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
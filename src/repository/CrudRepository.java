@@ -2,6 +2,7 @@ package repository;
 
 import exception.DatabaseOperationException;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CrudRepository<T> {
     void create(T entity) throws DatabaseOperationException;
@@ -9,4 +10,15 @@ public interface CrudRepository<T> {
     T getById(int id) throws DatabaseOperationException;
     void update(int id, T entity) throws DatabaseOperationException;
     void delete(int id) throws DatabaseOperationException;
-}
\ No newline at end of file
+
+    // Single-statement variants that report whether a row was affected,
+    // so callers don't need a getById round trip first
+    int updateReturningCount(int id, T entity) throws DatabaseOperationException;
+    boolean deleteIfExists(int id) throws DatabaseOperationException;
+
+    // Keyset pagination: up to limit rows with id > afterId, ordered by id
+    List<T> getPage(int afterId, int limit) throws DatabaseOperationException;
+
+    // Reads rows lazily with a fetch size; the caller must close the stream
+    Stream<T> streamAll() throws DatabaseOperationException;
+}
@@ -0,0 +1,10 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import model.Exercise;
+
+import java.util.List;
+
+public interface ExerciseBatchWriter {
+    void createAll(int workoutId, List<Exercise> exercises) throws DatabaseOperationException;
+}
@@ -2,14 +2,17 @@
 package repository;
 
 import exception.DatabaseOperationException;
+import exception.ForeignKeyViolationException;
 import model.Exercise;
 import utils.DatabaseConnection;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
-public class ExerciseRepository implements CrudRepository<Exercise>, ExerciseQueries {
+public class ExerciseRepository
+        implements CrudRepository<Exercise>, ExerciseQueries, ExerciseBatchWriter, ExerciseSummaryLookup {
 
     // Generic CRUD method
     @Override
@@ -38,10 +41,58 @@ public class ExerciseRepository implements CrudRepository<Exercise>, ExerciseQue
             }
 
         } catch (SQLException e) {
+            if (SqlErrors.isForeignKeyViolation(e)) throw new ForeignKeyViolationException("Workout " + workoutId + " does not exist", e);
             throw new DatabaseOperationException("Error creating exercise", e);
         }
     }
 
+    // CREATE (batch): one transaction, one executeBatch.
+    // Inside TransactionTemplate it joins the surrounding transaction instead of committing itself.
+    @Override
+    public void createAll(int workoutId, List<Exercise> exercises) throws DatabaseOperationException {
+        if (exercises.isEmpty()) return;
+        String sql = "INSERT INTO exercises (workout_id, name, sets, reps) VALUES (?, ?, ?, ?)";
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            boolean ownTransaction = conn.getAutoCommit();
+            if (ownTransaction) conn.setAutoCommit(false);
+            int[] ids = new int[exercises.size()];
+
+            try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (Exercise exercise : exercises) {
+                    ps.setInt(1, workoutId);
+                    ps.setString(2, exercise.getName());
+                    ps.setInt(3, exercise.getSets());
+                    ps.setInt(4, exercise.getReps());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (i < ids.length && rs.next()) {
+                        ids[i++] = rs.getInt(1);
+                    }
+                }
+                if (ownTransaction) conn.commit();
+            } catch (SQLException e) {
+                if (ownTransaction) conn.rollback();
+                throw e;
+            } finally {
+                if (ownTransaction) conn.setAutoCommit(true);
+            }
+
+            // ids are only assigned once the rows are written
+            for (int i = 0; i < ids.length; i++) {
+                exercises.get(i).setId(ids[i]);
+            }
+
+        } catch (SQLException e) {
+            if (SqlErrors.isForeignKeyViolation(e)) throw new ForeignKeyViolationException("Workout " + workoutId + " does not exist", e);
+            throw new DatabaseOperationException("Error creating exercises", e);
+        }
+    }
+
     // GET ALL
     @Override
     public List<Exercise> getAll() throws DatabaseOperationException {
@@ -53,18 +104,9 @@ public class ExerciseRepository implements CrudRepository<Exercise>, ExerciseQue
                 PreparedStatement ps = conn.prepareStatement(sql);
                 ResultSet rs = ps.executeQuery()
         ) {
+            RowMapper<Exercise> mapper = ExerciseRowMapper.bind(rs);
             while (rs.next()) {
-
-                Exercise e = new Exercise(
-                        rs.getInt("workout_id"),
-                        rs.getString("name"),
-                        rs.getInt("sets"),
-                        rs.getInt("reps")
-                );
-
-                e.setId(rs.getInt("id"));
-
-                exercises.add(e);
+                exercises.add(mapper.map(rs));
             }
 
         } catch (SQLException e) {
@@ -74,6 +116,50 @@ public class ExerciseRepository implements CrudRepository<Exercise>, ExerciseQue
         return exercises;
     }
 
+    // GET PAGE (keyset)
+    @Override
+    public List<Exercise> getPage(int afterId, int limit) throws DatabaseOperationException {
+        List<Exercise> exercises = new ArrayList<>();
+        String sql = "SELECT * FROM exercises WHERE id > ? ORDER BY id LIMIT ?";
+
+        try (
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)
+        ) {
+            ps.setInt(1, afterId);
+            ps.setInt(2, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                RowMapper<Exercise> mapper = ExerciseRowMapper.bind(rs);
+                while (rs.next()) {
+                    exercises.add(mapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Failed to fetch exercise page", e);
+        }
+        return exercises;
+    }
+
+    // STREAM ALL
+    @Override
+    public Stream<Exercise> streamAll() throws DatabaseOperationException {
+        String sql = "SELECT * FROM exercises ORDER BY id";
+        Connection conn = null;
+        PreparedStatement ps = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            ps = conn.prepareStatement(sql);
+            ps.setFetchSize(ResultSetStreams.FETCH_SIZE);
+            ResultSet rs = ps.executeQuery();
+            return ResultSetStreams.stream(conn, ps, rs, ExerciseRowMapper.bind(rs));
+        } catch (SQLException e) {
+            DatabaseConnection.close(conn, ps, null);
+            throw new DatabaseOperationException("Failed to stream exercises", e);
+        }
+    }
+
     // GET BY ID
     @Override
     public Exercise getById(int id) throws DatabaseOperationException {
@@ -87,17 +173,7 @@ public class ExerciseRepository implements CrudRepository<Exercise>, ExerciseQue
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-
-                Exercise e = new Exercise(
-                        rs.getInt("workout_id"),
-                        rs.getString("name"),
-                        rs.getInt("sets"),
-                        rs.getInt("reps")
-                );
-
-                e.setId(rs.getInt("id"));
-
-                return e;
+                return ExerciseRowMapper.bind(rs).map(rs);
             }
 
         } catch (SQLException e) {
@@ -107,6 +183,26 @@ public class ExerciseRepository implements CrudRepository<Exercise>, ExerciseQue
         return null;
     }
 
+    // SUMMARY - served by the index behind the workout_id foreign key
+    @Override
+    public ExerciseSummary getSummary(int workoutId) throws DatabaseOperationException {
+        String sql = "SELECT COUNT(*) AS exercise_count, COALESCE(SUM(reps), 0) AS total_reps "
+                + "FROM exercises WHERE workout_id = ?";
+
+        try (
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)
+        ) {
+            ps.setInt(1, workoutId);
+            ResultSet rs = ps.executeQuery();
+            rs.next();
+            return new ExerciseSummary(workoutId, rs.getInt("exercise_count"), rs.getLong("total_reps"));
+
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Failed to summarize exercises", e);
+        }
+    }
+
     // GET BY WORKOUT ID
     public List<Exercise> getByWorkoutId(int workoutId) throws DatabaseOperationException {
         List<Exercise> exercises = new ArrayList<>();
@@ -119,18 +215,9 @@ public class ExerciseRepository implements CrudRepository<Exercise>, ExerciseQue
             ps.setInt(1, workoutId);
             ResultSet rs = ps.executeQuery();
 
+            RowMapper<Exercise> mapper = ExerciseRowMapper.bind(rs);
             while (rs.next()) {
-
-                Exercise e = new Exercise(
-                        rs.getInt("workout_id"),
-                        rs.getString("name"),
-                        rs.getInt("sets"),
-                        rs.getInt("reps")
-                );
-
-                e.setId(rs.getInt("id"));
-
-                exercises.add(e);
+                exercises.add(mapper.map(rs));
             }
 
         } catch (SQLException e) {
@@ -143,6 +230,12 @@ public class ExerciseRepository implements CrudRepository<Exercise>, ExerciseQue
     // UPDATE
     @Override
     public void update(int id, Exercise exercise) throws DatabaseOperationException {
+        updateReturningCount(id, exercise);
+    }
+
+    // Matched rows (Connector/J reports found rows unless useAffectedRows=true), so 0 means no such id
+    @Override
+    public int updateReturningCount(int id, Exercise exercise) throws DatabaseOperationException {
         String sql = "UPDATE exercises SET name = ?, sets = ?, reps = ? WHERE id = ?";
 
         try (
@@ -154,7 +247,7 @@ public class ExerciseRepository implements CrudRepository<Exercise>, ExerciseQue
             ps.setInt(3, exercise.getReps());
             ps.setInt(4, id);
 
-            ps.executeUpdate();
+            return ps.executeUpdate();
 
         } catch (SQLException e) {
             throw new DatabaseOperationException("Failed to update exercise", e);
@@ -164,6 +257,11 @@ public class ExerciseRepository implements CrudRepository<Exercise>, ExerciseQue
     // DELETE
     @Override
     public void delete(int id) throws DatabaseOperationException {
+        deleteIfExists(id);
+    }
+
+    @Override
+    public boolean deleteIfExists(int id) throws DatabaseOperationException {
         String sql = "DELETE FROM exercises WHERE id = ?";
 
         try (
@@ -171,7 +269,7 @@ public class ExerciseRepository implements CrudRepository<Exercise>, ExerciseQue
                 PreparedStatement ps = conn.prepareStatement(sql)
         ) {
             ps.setInt(1, id);
-            ps.executeUpdate();
+            return ps.executeUpdate() > 0;
 
         } catch (SQLException e) {
             throw new DatabaseOperationException("Failed to delete exercise", e);
@@ -0,0 +1,27 @@
+package repository;
+
+import model.Exercise;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Exercise counterpart of WorkoutRowMapper
+public final class ExerciseRowMapper {
+
+    private ExerciseRowMapper() {}
+
+    public static RowMapper<Exercise> bind(ResultSet rs) throws SQLException {
+        return bind(rs, "id", "name");
+    }
+
+    // For joins where the exercise's id and name columns are aliased
+    public static RowMapper<Exercise> bind(ResultSet rs, String idColumn, String nameColumn) throws SQLException {
+        int id = rs.findColumn(idColumn);
+        int workoutId = rs.findColumn("workout_id");
+        int name = rs.findColumn(nameColumn);
+        int sets = rs.findColumn("sets");
+        int reps = rs.findColumn("reps");
+        return row -> Exercise.trusted(row.getInt(id), row.getInt(workoutId), row.getString(name),
+                row.getInt(sets), row.getInt(reps));
+    }
+}
@@ -0,0 +1,31 @@
+package repository;
+
+// Exercise count and total reps for one workout
+public class ExerciseSummary {
+    private final int workoutId;
+    private final int exerciseCount;
+    private final long totalReps;
+
+    public ExerciseSummary(int workoutId, int exerciseCount, long totalReps) {
+        this.workoutId = workoutId;
+        this.exerciseCount = exerciseCount;
+        this.totalReps = totalReps;
+    }
+
+    public static ExerciseSummary empty(int workoutId) {
+        return new ExerciseSummary(workoutId, 0, 0);
+    }
+
+    public int getWorkoutId() {return workoutId;}
+    public int getExerciseCount() {return exerciseCount;}
+    public long getTotalReps() {return totalReps;}
+
+    ExerciseSummary plus(int count, long reps) {
+        return new ExerciseSummary(workoutId, exerciseCount + count, totalReps + reps);
+    }
+
+    @Override
+    public String toString() {
+        return exerciseCount + " exercises / " + totalReps + " reps";
+    }
+}
@@ -0,0 +1,249 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import model.Exercise;
+import utils.DatabaseConnection;
+import utils.SortedIntSet;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// ExerciseSummaryLookup answered from an in-memory workoutId -> (exercise count, total reps) map.
+// Wraps the exercise CrudRepository and batch writer so every create/update/delete adjusts the
+// affected workout's summary by a delta once the write commits. Rows the wrappers never see
+// (ON DELETE CASCADE, other processes) are covered by removeWorkout() and by rebuild(), which a
+// background job can run periodically. Until the first load, lookups go to the fallback (SQL).
+public class ExerciseSummaryIndex implements CrudRepository<Exercise>, ExerciseBatchWriter, ExerciseSummaryLookup {
+
+    private final CrudRepository<Exercise> delegate;
+    private final ExerciseBatchWriter batchWriter;
+    private final ExerciseSummaryLookup fallback;
+    private final Map<Integer, ExerciseSummary> byWorkout = new ConcurrentHashMap<>();
+    private final Map<Integer, Entry> byExercise = new ConcurrentHashMap<>();
+    // exercise ids per workout, so removeWorkout() touches only that workout's rows; guarded by this
+    private final Map<Integer, SortedIntSet> idsByWorkout = new HashMap<>();
+    private volatile boolean loaded;
+    // bumped on every change so a rebuild that raced with a write is discarded
+    private long version;
+    private ScheduledExecutorService rebuildJob;
+
+    public ExerciseSummaryIndex(CrudRepository<Exercise> delegate, ExerciseBatchWriter batchWriter,
+                                ExerciseSummaryLookup fallback) {
+        this.delegate = delegate;
+        this.batchWriter = batchWriter;
+        this.fallback = fallback;
+    }
+
+    // Streams every exercise once, without holding the lock; safe to call again to reconcile.
+    // Returns false if a write landed meanwhile, in which case the current maps are kept.
+    public boolean rebuild() throws DatabaseOperationException {
+        long startVersion;
+        synchronized (this) {
+            startVersion = version;
+        }
+
+        Map<Integer, ExerciseSummary> summaries = new HashMap<>();
+        Map<Integer, Entry> entries = new HashMap<>();
+        Map<Integer, SortedIntSet> ids = new HashMap<>();
+        try (Stream<Exercise> exercises = delegate.streamAll()) {
+            exercises.forEach(e -> {
+                entries.put(e.getId(), new Entry(e.getWorkoutId(), e.getReps()));
+                ids.computeIfAbsent(e.getWorkoutId(), k -> new SortedIntSet()).add(e.getId());
+                summaries.merge(e.getWorkoutId(), new ExerciseSummary(e.getWorkoutId(), 1, e.getReps()),
+                        (a, b) -> a.plus(b.getExerciseCount(), b.getTotalReps()));
+            });
+        }
+
+        synchronized (this) {
+            if (version != startVersion) return false;
+            byWorkout.clear();
+            byWorkout.putAll(summaries);
+            byExercise.clear();
+            byExercise.putAll(entries);
+            idsByWorkout.clear();
+            idsByWorkout.putAll(ids);
+            loaded = true;
+            return true;
+        }
+    }
+
+    public void load() throws DatabaseOperationException {
+        // only retries if writes keep racing with the scan; the job reconciles later anyway
+        for (int attempt = 0; attempt < 3; attempt++) {
+            if (rebuild()) return;
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // Periodic reconciliation on a daemon thread; failures are reported and retried next period
+    public synchronized void startRebuildJob(long periodMillis) {
+        if (periodMillis <= 0) throw new IllegalArgumentException("periodMillis must be > 0");
+        if (rebuildJob != null) return;
+        rebuildJob = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "exercise-summary-rebuild");
+            t.setDaemon(true);
+            return t;
+        });
+        rebuildJob.scheduleWithFixedDelay(() -> {
+            try {
+                rebuild();
+            } catch (DatabaseOperationException | RuntimeException e) {
+                System.err.println("Exercise summary rebuild failed: " + e.getMessage());
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void shutdown() {
+        if (rebuildJob != null) {
+            rebuildJob.shutdownNow();
+            rebuildJob = null;
+        }
+    }
+
+    // LOOKUP
+    @Override
+    public ExerciseSummary getSummary(int workoutId) throws DatabaseOperationException {
+        if (!loaded) return fallback.getSummary(workoutId);
+        ExerciseSummary summary = byWorkout.get(workoutId);
+        return summary != null ? summary : ExerciseSummary.empty(workoutId);
+    }
+
+    // For exercises removed by ON DELETE CASCADE when their workout is deleted
+    public synchronized void removeWorkout(int workoutId) {
+        version++;
+        byWorkout.remove(workoutId);
+        SortedIntSet ids = idsByWorkout.remove(workoutId);
+        if (ids == null) return;
+        for (int i = 0; i < ids.size(); i++) {
+            byExercise.remove(ids.get(i));
+        }
+    }
+
+    // WRITES - summaries change only once the write is committed
+    @Override
+    public void create(Exercise exercise) throws DatabaseOperationException {
+        delegate.create(exercise);
+        int id = exercise.getId();
+        int workoutId = exercise.getWorkoutId();
+        int reps = exercise.getReps();
+        DatabaseConnection.afterCommit(() -> added(id, workoutId, reps));
+    }
+
+    @Override
+    public void createAll(int workoutId, List<Exercise> exercises) throws DatabaseOperationException {
+        batchWriter.createAll(workoutId, exercises);
+        int[] ids = new int[exercises.size()];
+        int[] reps = new int[exercises.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = exercises.get(i).getId();
+            reps[i] = exercises.get(i).getReps();
+        }
+        DatabaseConnection.afterCommit(() -> {
+            for (int i = 0; i < ids.length; i++) {
+                added(ids[i], workoutId, reps[i]);
+            }
+        });
+    }
+
+    @Override
+    public void update(int id, Exercise exercise) throws DatabaseOperationException {
+        updateReturningCount(id, exercise);
+    }
+
+    @Override
+    public int updateReturningCount(int id, Exercise exercise) throws DatabaseOperationException {
+        int updated = delegate.updateReturningCount(id, exercise);
+        if (updated > 0) {
+            int reps = exercise.getReps();
+            DatabaseConnection.afterCommit(() -> updated(id, reps));
+        }
+        return updated;
+    }
+
+    @Override
+    public void delete(int id) throws DatabaseOperationException {
+        deleteIfExists(id);
+    }
+
+    @Override
+    public boolean deleteIfExists(int id) throws DatabaseOperationException {
+        boolean deleted = delegate.deleteIfExists(id);
+        if (deleted) DatabaseConnection.afterCommit(() -> removed(id));
+        return deleted;
+    }
+
+    // READS
+    @Override
+    public List<Exercise> getAll() throws DatabaseOperationException {
+        return delegate.getAll();
+    }
+
+    @Override
+    public Exercise getById(int id) throws DatabaseOperationException {
+        return delegate.getById(id);
+    }
+
+    @Override
+    public List<Exercise> getPage(int afterId, int limit) throws DatabaseOperationException {
+        return delegate.getPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Exercise> streamAll() throws DatabaseOperationException {
+        return delegate.streamAll();
+    }
+
+    private synchronized void added(int id, int workoutId, int reps) {
+        version++;
+        if (byExercise.putIfAbsent(id, new Entry(workoutId, reps)) != null) return;
+        idsByWorkout.computeIfAbsent(workoutId, k -> new SortedIntSet()).add(id);
+        adjust(workoutId, 1, reps);
+    }
+
+    // the UPDATE statement never moves an exercise to another workout, only reps can change
+    private synchronized void updated(int id, int reps) {
+        version++;
+        Entry old = byExercise.get(id);
+        if (old == null) return; // unknown row, left to the next rebuild
+        byExercise.put(id, new Entry(old.workoutId, reps));
+        adjust(old.workoutId, 0, (long) reps - old.reps);
+    }
+
+    private synchronized void removed(int id) {
+        version++;
+        Entry old = byExercise.remove(id);
+        if (old == null) return;
+        SortedIntSet ids = idsByWorkout.get(old.workoutId);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) idsByWorkout.remove(old.workoutId);
+        adjust(old.workoutId, -1, -old.reps);
+    }
+
+    private void adjust(int workoutId, int count, long reps) {
+        ExerciseSummary current = byWorkout.getOrDefault(workoutId, ExerciseSummary.empty(workoutId));
+        ExerciseSummary next = current.plus(count, reps);
+        if (next.getExerciseCount() <= 0) {
+            byWorkout.remove(workoutId);
+        } else {
+            byWorkout.put(workoutId, next);
+        }
+    }
+
+    private static class Entry {
+        private final int workoutId;
+        private final int reps;
+
+        private Entry(int workoutId, int reps) {
+            this.workoutId = workoutId;
+            this.reps = reps;
+        }
+    }
+}
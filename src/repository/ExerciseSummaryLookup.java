@@ -0,0 +1,8 @@
+package repository;
+
+import exception.DatabaseOperationException;
+
+public interface ExerciseSummaryLookup {
+    // Never null: a workout without exercises (or unknown id) has an empty summary
+    ExerciseSummary getSummary(int workoutId) throws DatabaseOperationException;
+}
@@ -0,0 +1,69 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import model.Exercise;
+import model.Workout;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+// BulkImportWriter for the in-memory engine: rows go through the in-memory repositories, and
+// whatever a failing call already inserted is removed again so each call stays all or nothing.
+public class InMemoryBulkImportRepository implements BulkImportWriter {
+
+    private final InMemoryDatabase db;
+    private final InMemoryWorkoutRepository workouts;
+    private final InMemoryExerciseRepository exercises;
+
+    public InMemoryBulkImportRepository(InMemoryDatabase db) {
+        this.db = db;
+        this.workouts = new InMemoryWorkoutRepository(db);
+        this.exercises = new InMemoryExerciseRepository(db);
+    }
+
+    @Override
+    public void loadWorkoutIds(ObjIntConsumer<String> sink) {
+        db.forEachWorkout(row -> sink.accept(row.name, row.id));
+    }
+
+    @Override
+    public void insertWorkouts(List<Workout> batch) throws DatabaseOperationException {
+        List<Workout> inserted = new ArrayList<>(batch.size());
+        try {
+            for (Workout workout : batch) {
+                workouts.create(workout);
+                inserted.add(workout);
+            }
+        } catch (DatabaseOperationException e) {
+            for (Workout workout : inserted) {
+                workouts.deleteIfExists(workout.getId());
+                workout.setId(0);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void insertExercises(List<Exercise> batch) throws DatabaseOperationException {
+        Map<Integer, List<Exercise>> byWorkout = new LinkedHashMap<>();
+        for (Exercise exercise : batch) {
+            byWorkout.computeIfAbsent(exercise.getWorkoutId(), id -> new ArrayList<>()).add(exercise);
+        }
+
+        List<Exercise> inserted = new ArrayList<>(batch.size());
+        try {
+            for (Map.Entry<Integer, List<Exercise>> group : byWorkout.entrySet()) {
+                exercises.createAll(group.getKey(), group.getValue());
+                inserted.addAll(group.getValue());
+            }
+        } catch (DatabaseOperationException e) {
+            for (Exercise exercise : inserted) {
+                exercises.deleteIfExists(exercise.getId());
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package repository;
+
+import model.Exercise;
+import model.Workout;
+import model.WorkoutType;
+import utils.IntObjectMap;
+import utils.SortedIntSet;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Shared storage of the in-memory engine: the workout and exercise tables, their id sequences
+// and the UNIQUE name index. InMemoryWorkoutRepository and InMemoryExerciseRepository are the
+// views callers use; build both over the same instance so FK checks and cascades see each other.
+//
+// Rows live in int-keyed maps split into stripes (id & mask), each guarded by its own read/write
+// lock, so writers to different ids rarely contend. A workout's stripe lock also guards its list
+// of exercise ids; when both are needed the workout lock is always taken first.
+// Writes are applied immediately: the engine does not take part in TransactionTemplate.
+public class InMemoryDatabase {
+
+    static final int MAX_NAME_LENGTH = 100;
+
+    private final int mask;
+    private final ReentrantReadWriteLock[] workoutLocks;
+    private final IntObjectMap<WorkoutRow>[] workoutStripes;
+    private final ReentrantReadWriteLock[] exerciseLocks;
+    private final IntObjectMap<ExerciseRow>[] exerciseStripes;
+
+    final Map<String, WorkoutRow> workoutsByName = new ConcurrentHashMap<>();
+    final AtomicInteger workoutIds = new AtomicInteger();
+    final AtomicInteger exerciseIds = new AtomicInteger();
+
+    public InMemoryDatabase() {
+        this(16);
+    }
+
+    public InMemoryDatabase(int stripes) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes must be a power of two");
+        }
+        this.mask = stripes - 1;
+        this.workoutLocks = new ReentrantReadWriteLock[stripes];
+        this.workoutStripes = newStripes(stripes);
+        this.exerciseLocks = new ReentrantReadWriteLock[stripes];
+        this.exerciseStripes = newStripes(stripes);
+        for (int i = 0; i < stripes; i++) {
+            workoutLocks[i] = new ReentrantReadWriteLock();
+            workoutStripes[i] = new IntObjectMap<>();
+            exerciseLocks[i] = new ReentrantReadWriteLock();
+            exerciseStripes[i] = new IntObjectMap<>();
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <V> IntObjectMap<V>[] newStripes(int stripes) {
+        return (IntObjectMap<V>[]) new IntObjectMap[stripes];
+    }
+
+    // WORKOUT STRIPES - callers hold the matching lock while touching the map or its rows
+    Lock workoutReadLock(int id) {
+        return workoutLocks[id & mask].readLock();
+    }
+
+    Lock workoutWriteLock(int id) {
+        return workoutLocks[id & mask].writeLock();
+    }
+
+    IntObjectMap<WorkoutRow> workouts(int id) {
+        return workoutStripes[id & mask];
+    }
+
+    // Visits every workout row under its stripe's read lock; the action must copy what it keeps
+    void forEachWorkout(Consumer<WorkoutRow> action) {
+        for (int i = 0; i < workoutStripes.length; i++) {
+            Lock lock = workoutLocks[i].readLock();
+            lock.lock();
+            try {
+                workoutStripes[i].forEach((id, row) -> action.accept(row));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // EXERCISE STRIPES
+    Lock exerciseReadLock(int id) {
+        return exerciseLocks[id & mask].readLock();
+    }
+
+    Lock exerciseWriteLock(int id) {
+        return exerciseLocks[id & mask].writeLock();
+    }
+
+    IntObjectMap<ExerciseRow> exercises(int id) {
+        return exerciseStripes[id & mask];
+    }
+
+    void forEachExercise(Consumer<ExerciseRow> action) {
+        for (int i = 0; i < exerciseStripes.length; i++) {
+            Lock lock = exerciseLocks[i].readLock();
+            lock.lock();
+            try {
+                exerciseStripes[i].forEach((id, row) -> action.accept(row));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Copy of one exercise, or null; takes the exercise stripe's read lock
+    Exercise readExercise(int id) {
+        Lock lock = exerciseReadLock(id);
+        lock.lock();
+        try {
+            ExerciseRow row = exercises(id).get(id);
+            return row == null ? null : row.toExercise();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Removes one exercise row; the caller holds the owning workout's write lock
+    ExerciseRow removeExercise(int id) {
+        Lock lock = exerciseWriteLock(id);
+        lock.lock();
+        try {
+            return exercises(id).remove(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Same case-insensitive key as the MySQL collation behind the UNIQUE constraint
+    static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    static boolean isKnownType(String type) {
+        return WorkoutType.of(type) != null;
+    }
+
+    static final class WorkoutRow {
+        final int id;
+        final String type;
+        String name;
+        int duration;
+        final SortedIntSet exerciseIds = new SortedIntSet();
+
+        WorkoutRow(int id, String type, String name, int duration) {
+            this.id = id;
+            this.type = type;
+            this.name = name;
+            this.duration = duration;
+        }
+
+        // Rows were validated on the way in, like WorkoutRowMapper's
+        Workout toWorkout() {
+            return WorkoutType.require(type).fromStorage(id, name, duration);
+        }
+    }
+
+    static final class ExerciseRow {
+        final int id;
+        final int workoutId;
+        String name;
+        int sets;
+        int reps;
+
+        ExerciseRow(int id, int workoutId, String name, int sets, int reps) {
+            this.id = id;
+            this.workoutId = workoutId;
+            this.name = name;
+            this.sets = sets;
+            this.reps = reps;
+        }
+
+        Exercise toExercise() {
+            return Exercise.trusted(id, workoutId, name, sets, reps);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import exception.ForeignKeyViolationException;
+import model.Exercise;
+import repository.InMemoryDatabase.ExerciseRow;
+import repository.InMemoryDatabase.WorkoutRow;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
+
+// Exercise side of the in-memory engine, with the same contracts as ExerciseRepository:
+// inserts for a missing workout fail with ForeignKeyViolationException, createAll is
+// all-or-nothing, and the workout's exercise-id index answers getByWorkoutId and getSummary
+// without scanning the table.
+public class InMemoryExerciseRepository
+        implements CrudRepository<Exercise>, ExerciseQueries, ExerciseBatchWriter, ExerciseSummaryLookup {
+
+    private final InMemoryDatabase db;
+
+    public InMemoryExerciseRepository(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    // CREATE
+    @Override
+    public void create(Exercise exercise) throws DatabaseOperationException {
+        createAll(exercise.getWorkoutId(), List.of(exercise));
+    }
+
+    // Holding the workout's write lock keeps a concurrent delete from orphaning the rows
+    @Override
+    public void createAll(int workoutId, List<Exercise> exercises) throws DatabaseOperationException {
+        if (exercises.isEmpty()) return;
+        for (Exercise exercise : exercises) {
+            InMemoryWorkoutRepository.checkLength(exercise.getName());
+        }
+
+        Lock lock = db.workoutWriteLock(workoutId);
+        lock.lock();
+        try {
+            WorkoutRow workout = db.workouts(workoutId).get(workoutId);
+            if (workout == null) {
+                throw new ForeignKeyViolationException("Workout " + workoutId + " does not exist", null);
+            }
+            for (Exercise exercise : exercises) {
+                ExerciseRow row = new ExerciseRow(db.exerciseIds.incrementAndGet(), workoutId,
+                        exercise.getName(), exercise.getSets(), exercise.getReps());
+                Lock rowLock = db.exerciseWriteLock(row.id);
+                rowLock.lock();
+                try {
+                    db.exercises(row.id).put(row.id, row);
+                } finally {
+                    rowLock.unlock();
+                }
+                workout.exerciseIds.add(row.id);
+                exercise.setId(row.id);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // GET ALL
+    @Override
+    public List<Exercise> getAll() {
+        List<Exercise> exercises = new ArrayList<>();
+        db.forEachExercise(row -> exercises.add(row.toExercise()));
+        exercises.sort(Comparator.comparingInt(Exercise::getId));
+        return exercises;
+    }
+
+    // GET BY ID
+    @Override
+    public Exercise getById(int id) {
+        return db.readExercise(id);
+    }
+
+    @Override
+    public List<Exercise> getPage(int afterId, int limit) {
+        List<Exercise> exercises = new ArrayList<>();
+        int last = db.exerciseIds.get();
+        for (int id = afterId + 1; id > 0 && id <= last && exercises.size() < limit; id++) {
+            Exercise exercise = db.readExercise(id);
+            if (exercise != null) exercises.add(exercise);
+        }
+        return exercises;
+    }
+
+    @Override
+    public Stream<Exercise> streamAll() {
+        return getAll().stream();
+    }
+
+    // GET BY WORKOUT ID - ordered by id
+    @Override
+    public List<Exercise> getByWorkoutId(int workoutId) {
+        List<Exercise> exercises = new ArrayList<>();
+        for (int id : exerciseIdsOf(workoutId)) {
+            Exercise exercise = db.readExercise(id);
+            if (exercise != null) exercises.add(exercise);
+        }
+        return exercises;
+    }
+
+    // SUMMARY
+    @Override
+    public ExerciseSummary getSummary(int workoutId) {
+        int count = 0;
+        long reps = 0;
+        for (int id : exerciseIdsOf(workoutId)) {
+            Lock lock = db.exerciseReadLock(id);
+            lock.lock();
+            try {
+                ExerciseRow row = db.exercises(id).get(id);
+                if (row == null) continue;
+                count++;
+                reps += row.reps;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return new ExerciseSummary(workoutId, count, reps);
+    }
+
+    // UPDATE - workout_id never changes, like the UPDATE statement
+    @Override
+    public void update(int id, Exercise exercise) throws DatabaseOperationException {
+        updateReturningCount(id, exercise);
+    }
+
+    @Override
+    public int updateReturningCount(int id, Exercise exercise) throws DatabaseOperationException {
+        InMemoryWorkoutRepository.checkLength(exercise.getName());
+
+        Lock lock = db.exerciseWriteLock(id);
+        lock.lock();
+        try {
+            ExerciseRow row = db.exercises(id).get(id);
+            if (row == null) return 0;
+            row.name = exercise.getName();
+            row.sets = exercise.getSets();
+            row.reps = exercise.getReps();
+            return 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // DELETE
+    @Override
+    public void delete(int id) {
+        deleteIfExists(id);
+    }
+
+    @Override
+    public boolean deleteIfExists(int id) {
+        Exercise existing = db.readExercise(id);
+        if (existing == null) return false;
+
+        // lock order is workout then exercise; the row is re-checked once both are held
+        int workoutId = existing.getWorkoutId();
+        Lock lock = db.workoutWriteLock(workoutId);
+        lock.lock();
+        try {
+            if (db.removeExercise(id) == null) return false;
+            WorkoutRow workout = db.workouts(workoutId).get(workoutId);
+            if (workout != null) workout.exerciseIds.remove(id);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int[] exerciseIdsOf(int workoutId) {
+        Lock lock = db.workoutReadLock(workoutId);
+        lock.lock();
+        try {
+            WorkoutRow workout = db.workouts(workoutId).get(workoutId);
+            return workout == null ? new int[0] : workout.exerciseIds.toArray();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
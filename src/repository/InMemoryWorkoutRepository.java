@@ -0,0 +1,307 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import exception.DuplicateKeyException;
+import exception.InvalidDataException;
+import model.Exercise;
+import model.Workout;
+import repository.InMemoryDatabase.ExerciseRow;
+import repository.InMemoryDatabase.WorkoutRow;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
+
+// Workout side of the in-memory engine, with the same contracts as WorkoutRepository:
+// generated ids, UNIQUE (case-insensitive) names reported as DuplicateKeyException,
+// ON DELETE CASCADE to exercises, and results ordered like the SQL queries.
+// Every call returns fresh objects, so callers may mutate what they get back.
+public class InMemoryWorkoutRepository
+        implements CrudRepository<Workout>, WorkoutQueries, WorkoutLookup, WorkoutStatsQueries {
+
+    private static final Comparator<Workout> BY_ID = Comparator.comparingInt(Workout::getId);
+
+    private final InMemoryDatabase db;
+
+    public InMemoryWorkoutRepository(InMemoryDatabase db) {
+        this.db = db;
+    }
+
+    // CREATE
+    @Override
+    public void create(Workout workout) throws DatabaseOperationException {
+        String type = workout.getWorkoutType();
+        if (!InMemoryDatabase.isKnownType(type)) {
+            throw new DatabaseOperationException("Unknown workout type: " + type, null);
+        }
+        checkLength(workout.getName());
+
+        WorkoutRow row = new WorkoutRow(db.workoutIds.incrementAndGet(), type, workout.getName(), workout.getDuration());
+        if (db.workoutsByName.putIfAbsent(InMemoryDatabase.nameKey(row.name), row) != null) {
+            throw new DuplicateKeyException("Workout name already exists", null);
+        }
+
+        Lock lock = db.workoutWriteLock(row.id);
+        lock.lock();
+        try {
+            db.workouts(row.id).put(row.id, row);
+        } finally {
+            lock.unlock();
+        }
+        workout.setId(row.id);
+    }
+
+    // GET ALL
+    @Override
+    public List<Workout> getAll() {
+        List<Workout> workouts = new ArrayList<>();
+        db.forEachWorkout(row -> workouts.add(row.toWorkout()));
+        workouts.sort(BY_ID);
+        return workouts;
+    }
+
+    // GET BY ID
+    @Override
+    public Workout getById(int id) {
+        Lock lock = db.workoutReadLock(id);
+        lock.lock();
+        try {
+            WorkoutRow row = db.workouts(id).get(id);
+            return row == null ? null : row.toWorkout();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Walks ids upward from afterId, so a page costs O(limit + deleted ids skipped)
+    @Override
+    public List<Workout> getPage(int afterId, int limit) {
+        List<Workout> workouts = new ArrayList<>();
+        int last = db.workoutIds.get();
+        for (int id = afterId + 1; id > 0 && id <= last && workouts.size() < limit; id++) {
+            Workout workout = getById(id);
+            if (workout != null) workouts.add(workout);
+        }
+        return workouts;
+    }
+
+    @Override
+    public Stream<Workout> streamAll() {
+        return getAll().stream();
+    }
+
+    // UPDATE - the type never changes, like the UPDATE statement
+    @Override
+    public void update(int id, Workout workout) throws DatabaseOperationException {
+        updateReturningCount(id, workout);
+    }
+
+    @Override
+    public int updateReturningCount(int id, Workout workout) throws DatabaseOperationException {
+        checkLength(workout.getName());
+
+        Lock lock = db.workoutWriteLock(id);
+        lock.lock();
+        try {
+            WorkoutRow row = db.workouts(id).get(id);
+            if (row == null) return 0;
+
+            String oldKey = InMemoryDatabase.nameKey(row.name);
+            String newKey = InMemoryDatabase.nameKey(workout.getName());
+            if (!newKey.equals(oldKey)) {
+                WorkoutRow owner = db.workoutsByName.putIfAbsent(newKey, row);
+                if (owner != null && owner != row) {
+                    throw new DuplicateKeyException("Workout name already exists", null);
+                }
+                db.workoutsByName.remove(oldKey, row);
+            }
+            row.name = workout.getName();
+            row.duration = workout.getDuration();
+            return 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // DELETE - cascades to the workout's exercises
+    @Override
+    public void delete(int id) {
+        deleteIfExists(id);
+    }
+
+    @Override
+    public boolean deleteIfExists(int id) {
+        Lock lock = db.workoutWriteLock(id);
+        lock.lock();
+        try {
+            WorkoutRow row = db.workouts(id).remove(id);
+            if (row == null) return false;
+            db.workoutsByName.remove(InMemoryDatabase.nameKey(row.name), row);
+            for (int exerciseId : row.exerciseIds.toArray()) {
+                db.removeExercise(exerciseId);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // LOOKUP
+    @Override
+    public boolean existsByName(String name) {
+        return db.workoutsByName.containsKey(InMemoryDatabase.nameKey(name));
+    }
+
+    @Override
+    public boolean existsByNameExceptId(String name, int excludeId) {
+        WorkoutRow row = db.workoutsByName.get(InMemoryDatabase.nameKey(name));
+        return row != null && row.id != excludeId;
+    }
+
+    // QUERIES
+    @Override
+    public Workout getShortestByType(String type) {
+        Workout[] shortest = new Workout[1];
+        db.forEachWorkout(row -> {
+            if (!row.type.equalsIgnoreCase(type)) return;
+            Workout best = shortest[0];
+            if (best == null || row.duration < best.getDuration()
+                    || (row.duration == best.getDuration() && row.id < best.getId())) {
+                shortest[0] = row.toWorkout();
+            }
+        });
+        return shortest[0];
+    }
+
+    @Override
+    public List<Workout> getAllWithExercises() {
+        List<Workout> workouts = new ArrayList<>();
+        List<int[]> exerciseIds = new ArrayList<>();
+        db.forEachWorkout(row -> {
+            workouts.add(row.toWorkout());
+            exerciseIds.add(row.exerciseIds.toArray());
+        });
+
+        for (int i = 0; i < workouts.size(); i++) {
+            Workout workout = workouts.get(i);
+            for (int exerciseId : exerciseIds.get(i)) {
+                Exercise exercise = db.readExercise(exerciseId);
+                if (exercise != null) workout.addExercise(exercise);
+            }
+        }
+        workouts.sort(BY_ID);
+        return workouts;
+    }
+
+    @Override
+    public List<Workout> getAllSorted(SortSpec sort) {
+        List<Workout> workouts = getAll();
+        workouts.sort(sort.toComparator());
+        return workouts;
+    }
+
+    // O(n log k) like SortUtils.topKByDuration, for any sort order
+    @Override
+    public List<Workout> getTopSorted(SortSpec sort, int limit) {
+        if (limit <= 0) return new ArrayList<>();
+
+        Comparator<Workout> order = sort.toComparator();
+        PriorityQueue<Workout> lastOnTop = new PriorityQueue<>(limit + 1, order.reversed());
+        db.forEachWorkout(row -> {
+            Workout workout = row.toWorkout();
+            if (lastOnTop.size() < limit) {
+                lastOnTop.add(workout);
+            } else if (order.compare(workout, lastOnTop.peek()) < 0) {
+                lastOnTop.poll();
+                lastOnTop.add(workout);
+            }
+        });
+
+        List<Workout> result = new ArrayList<>(lastOnTop);
+        result.sort(order);
+        return result;
+    }
+
+    // STATS
+    @Override
+    public List<TypeStats> getStatsByType() {
+        Map<String, double[]> totals = new TreeMap<>();
+        db.forEachWorkout(row -> {
+            double[] t = totals.computeIfAbsent(row.type.toUpperCase(Locale.ROOT), k -> new double[3]);
+            t[0]++;
+            t[1] += row.duration;
+            t[2] += row.toWorkout().calculateCalories();
+        });
+
+        List<TypeStats> stats = new ArrayList<>();
+        for (Map.Entry<String, double[]> e : totals.entrySet()) {
+            double[] t = e.getValue();
+            stats.add(new TypeStats(e.getKey(), (int) t[0], (long) t[1], t[1] / t[0], t[2]));
+        }
+        return stats;
+    }
+
+    @Override
+    public List<WorkoutVolume> getVolumePerWorkout() {
+        List<WorkoutVolume> volumes = new ArrayList<>();
+        List<int[]> exerciseIds = new ArrayList<>();
+        List<Workout> workouts = new ArrayList<>();
+        db.forEachWorkout(row -> {
+            workouts.add(row.toWorkout());
+            exerciseIds.add(row.exerciseIds.toArray());
+        });
+        for (int i = 0; i < workouts.size(); i++) {
+            volumes.add(volumeOf(workouts.get(i), exerciseIds.get(i)));
+        }
+        volumes.sort(Comparator.comparingInt(WorkoutVolume::getWorkoutId));
+        return volumes;
+    }
+
+    @Override
+    public WorkoutVolume getVolume(int workoutId) {
+        Workout workout;
+        int[] exerciseIds;
+        Lock lock = db.workoutReadLock(workoutId);
+        lock.lock();
+        try {
+            WorkoutRow row = db.workouts(workoutId).get(workoutId);
+            if (row == null) return null;
+            workout = row.toWorkout();
+            exerciseIds = row.exerciseIds.toArray();
+        } finally {
+            lock.unlock();
+        }
+        return volumeOf(workout, exerciseIds);
+    }
+
+    private WorkoutVolume volumeOf(Workout workout, int[] exerciseIds) {
+        int count = 0;
+        long volume = 0;
+        for (int exerciseId : exerciseIds) {
+            Lock lock = db.exerciseReadLock(exerciseId);
+            lock.lock();
+            try {
+                ExerciseRow exercise = db.exercises(exerciseId).get(exerciseId);
+                if (exercise == null) continue;
+                count++;
+                volume += (long) exercise.sets * exercise.reps;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return new WorkoutVolume(workout.getId(), workout.getName(), count, volume);
+    }
+
+    // VARCHAR(100) in the schema
+    static void checkLength(String name) throws DatabaseOperationException {
+        if (name.length() > InMemoryDatabase.MAX_NAME_LENGTH) {
+            throw new InvalidDataException("Name longer than " + InMemoryDatabase.MAX_NAME_LENGTH + " characters", null);
+        }
+    }
+}
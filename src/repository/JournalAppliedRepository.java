@@ -0,0 +1,62 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import utils.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.UUID;
+
+// Operation ids of journal records already applied to the database (table journal_applied).
+// Written in the same transaction as the mutation itself, so a replay after a crash skips
+// exactly the records that made it. For creates it also keeps the generated id, which later
+// records that referenced the provisional id are mapped to.
+public class JournalAppliedRepository {
+
+    public static final int NOT_APPLIED = Integer.MIN_VALUE;
+
+    // NOT_APPLIED if the op has not been applied; otherwise the created id, or 0 for other ops
+    public int findApplied(UUID opId) throws DatabaseOperationException {
+        String sql = "SELECT created_id FROM journal_applied WHERE op_id = ?";
+
+        try (
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)
+        ) {
+            ps.setString(1, opId.toString());
+            ResultSet rs = ps.executeQuery();
+
+            if (rs.next()) {
+                return rs.getInt("created_id");
+            }
+            return NOT_APPLIED;
+
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Failed to read applied journal ops", e);
+        }
+    }
+
+    public void markApplied(UUID opId, int createdId, boolean failed) throws DatabaseOperationException {
+        String sql = "INSERT INTO journal_applied (op_id, created_id, failed) VALUES (?, ?, ?)";
+
+        try (
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)
+        ) {
+            ps.setString(1, opId.toString());
+            if (createdId > 0) {
+                ps.setInt(2, createdId);
+            } else {
+                ps.setNull(2, Types.INTEGER);
+            }
+            ps.setBoolean(3, failed);
+            ps.executeUpdate();
+
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Failed to record applied journal op", e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package repository;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+// One workout/exercise mutation as stored in the MutationJournal.
+// Field use per op:
+//   CREATE_WORKOUT   id = provisional id, text = type, name, a = duration
+//   UPDATE_WORKOUT   id, text = type, name, a = duration
+//   DELETE_WORKOUT   id
+//   CREATE_EXERCISE  id = provisional id, ref = workout id, name, a = sets, b = reps
+//   UPDATE_EXERCISE  id, name, a = sets, b = reps
+//   DELETE_EXERCISE  id
+// Ids may be provisional (negative) when they point at a row created by an earlier record.
+public class JournalRecord {
+
+    public enum Op {
+        CREATE_WORKOUT, UPDATE_WORKOUT, DELETE_WORKOUT, CREATE_EXERCISE, UPDATE_EXERCISE, DELETE_EXERCISE;
+
+        private static final Op[] VALUES = values();
+    }
+
+    private final UUID opId;
+    private final Op op;
+    private final int id;
+    private final int ref;
+    private final String text;
+    private final String name;
+    private final int a;
+    private final int b;
+
+    public JournalRecord(UUID opId, Op op, int id, int ref, String text, String name, int a, int b) {
+        this.opId = opId;
+        this.op = op;
+        this.id = id;
+        this.ref = ref;
+        this.text = text;
+        this.name = name;
+        this.a = a;
+        this.b = b;
+    }
+
+    public UUID getOpId() {return opId;}
+    public Op getOp() {return op;}
+    public int getId() {return id;}
+    public int getRef() {return ref;}
+    public String getText() {return text;}
+    public String getName() {return name;}
+    public int getA() {return a;}
+    public int getB() {return b;}
+
+    // Payload only; MutationJournal adds the length prefix and checksum
+    byte[] encode() {
+        byte[] textBytes = bytes(text);
+        byte[] nameBytes = bytes(name);
+        ByteBuffer buf = ByteBuffer.allocate(1 + 16 + 4 * 4 + encodedLength(textBytes) + encodedLength(nameBytes));
+        buf.put((byte) op.ordinal());
+        buf.putLong(opId.getMostSignificantBits());
+        buf.putLong(opId.getLeastSignificantBits());
+        buf.putInt(id);
+        buf.putInt(ref);
+        buf.putInt(a);
+        buf.putInt(b);
+        putString(buf, textBytes);
+        putString(buf, nameBytes);
+        return buf.array();
+    }
+
+    static JournalRecord decode(ByteBuffer buf) {
+        Op op = Op.VALUES[buf.get()];
+        UUID opId = new UUID(buf.getLong(), buf.getLong());
+        int id = buf.getInt();
+        int ref = buf.getInt();
+        int a = buf.getInt();
+        int b = buf.getInt();
+        String text = getString(buf);
+        String name = getString(buf);
+        return new JournalRecord(opId, op, id, ref, text, name, a, b);
+    }
+
+    private static byte[] bytes(String s) {
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int encodedLength(byte[] bytes) {
+        return 4 + (bytes == null ? 0 : bytes.length);
+    }
+
+    // length -1 encodes null
+    private static void putString(ByteBuffer buf, byte[] bytes) {
+        if (bytes == null) {
+            buf.putInt(-1);
+        } else {
+            buf.putInt(bytes.length);
+            buf.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buf) {
+        int length = buf.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return op + " id=" + id + (name != null ? " name=" + name : "") + " op=" + opId;
+    }
+}
@@ -0,0 +1,374 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import exception.DuplicateKeyException;
+import exception.ForeignKeyViolationException;
+import model.Exercise;
+import model.Workout;
+import model.WorkoutType;
+import utils.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Applies MutationJournal records to the repositories, in journal order.
+// Each record is applied together with its journal_applied row in one transaction, so replaying
+// the same journal again (after a crash, or records recovered at startup) is a no-op for the
+// records that already made it. Rows created from the journal get provisional (negative) ids
+// when they are journaled; the replayer maps them to the generated ids as the creates land.
+//
+// A record the database rejects for good (duplicate name, missing workout, row not found) is
+// marked failed and reported to the listener; any other error (DB down, timeout) stops the
+// round and the record is retried on the next one. Once every record is applied the journal
+// file is emptied.
+public class JournalReplayer {
+
+    public interface FailureListener {
+        void failed(JournalRecord record, DatabaseOperationException error);
+    }
+
+    private final MutationJournal journal;
+    private final CrudRepository<Workout> workouts;
+    private final CrudRepository<Exercise> exercises;
+    private final JournalAppliedRepository appliedOps;
+    private final TransactionTemplate transactions;
+    private final FailureListener listener;
+
+    // guarded by itself; oldest first
+    private final Deque<JournalRecord> unapplied = new ArrayDeque<>();
+    // journaled creates not applied yet, by provisional id
+    private final Map<Integer, JournalRecord> pendingWorkouts = new ConcurrentHashMap<>();
+    private final Map<Integer, JournalRecord> pendingExercises = new ConcurrentHashMap<>();
+    // provisional id -> generated id
+    private final Map<Integer, Integer> workoutIds = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> exerciseIds = new ConcurrentHashMap<>();
+    // latest unapplied UPDATE/DELETE per row, keyed by the generated id once known, else the provisional
+    // one; a create landing re-keys its row's entry. Written under changesLock
+    private final Map<Integer, JournalRecord> workoutChanges = new ConcurrentHashMap<>();
+    private final Map<Integer, JournalRecord> exerciseChanges = new ConcurrentHashMap<>();
+    private final Object changesLock = new Object();
+    private final AtomicInteger provisionalIds = new AtomicInteger();
+    // appends that are durable but not yet queued; the file is only emptied when this is 0
+    private final AtomicInteger submitting = new AtomicInteger();
+    private final AtomicBoolean replayRequested = new AtomicBoolean();
+    private ScheduledExecutorService worker;
+
+    public JournalReplayer(MutationJournal journal, CrudRepository<Workout> workouts, CrudRepository<Exercise> exercises,
+                           JournalAppliedRepository appliedOps, TransactionTemplate transactions,
+                           FailureListener listener) {
+        this.journal = journal;
+        this.workouts = workouts;
+        this.exercises = exercises;
+        this.appliedOps = appliedOps;
+        this.transactions = transactions;
+        this.listener = listener;
+
+        int lowest = 0;
+        for (JournalRecord record : journal.getRecovered()) {
+            enqueue(record);
+            if (isCreate(record)) lowest = Math.min(lowest, record.getId());
+        }
+        provisionalIds.set(-lowest);
+    }
+
+    // Applies records in the background: every periodMillis, and soon after each submit()
+    public synchronized void start(long periodMillis) {
+        if (worker != null) return;
+        worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "journal-replay");
+            t.setDaemon(true);
+            return t;
+        });
+        worker.scheduleWithFixedDelay(this::replayQuietly, 0, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Stops the background worker, then makes one last attempt to apply what is left.
+    // Waits outside the monitor: a replay the worker already queued needs it to finish
+    public void shutdown() {
+        ScheduledExecutorService stopping;
+        synchronized (this) {
+            stopping = worker;
+            worker = null;
+        }
+        if (stopping != null) {
+            stopping.shutdown();
+            try {
+                stopping.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        replayQuietly();
+    }
+
+    int nextProvisionalId() {
+        return -provisionalIds.incrementAndGet();
+    }
+
+    static UUID newOpId() {
+        return UUID.randomUUID();
+    }
+
+    // Returns once the record is durable in the journal
+    void submit(JournalRecord record) throws DatabaseOperationException {
+        submitting.incrementAndGet();
+        try {
+            journal.append(record);
+            enqueue(record);
+        } catch (IOException e) {
+            throw new DatabaseOperationException("Failed to write journal", e);
+        } finally {
+            submitting.decrementAndGet();
+        }
+        requestReplay();
+    }
+
+    public int getUnappliedCount() {
+        synchronized (unapplied) {
+            return unapplied.size();
+        }
+    }
+
+    // PENDING STATE for the journaling repositories
+    JournalRecord pendingWorkout(int provisionalId) {
+        return pendingWorkouts.get(provisionalId);
+    }
+
+    JournalRecord pendingExercise(int provisionalId) {
+        return pendingExercises.get(provisionalId);
+    }
+
+    List<JournalRecord> pendingExercises() {
+        return new ArrayList<>(pendingExercises.values());
+    }
+
+    List<JournalRecord> pendingWorkouts() {
+        return new ArrayList<>(pendingWorkouts.values());
+    }
+
+    // Latest journaled UPDATE or DELETE of this row (either of its ids) that is not applied yet, else null
+    JournalRecord pendingWorkoutChange(int id) {
+        return workoutChanges.get(rowKey(id, workoutIds));
+    }
+
+    JournalRecord pendingExerciseChange(int id) {
+        return exerciseChanges.get(rowKey(id, exerciseIds));
+    }
+
+    // true while any exercise create, update or delete is journaled but not applied
+    boolean hasPendingExerciseWrites() {
+        return !pendingExercises.isEmpty() || !exerciseChanges.isEmpty();
+    }
+
+    // Every unapplied workout UPDATE/DELETE, keyed like pendingWorkoutChange: the generated id of an
+    // applied row, the provisional id of a row whose create is still journaled
+    Map<Integer, JournalRecord> pendingWorkoutChanges() {
+        return new HashMap<>(workoutChanges);
+    }
+
+    // Generated id for a provisional one, the id itself if it is not provisional, else null
+    Integer resolveWorkoutId(int id) {
+        return id > 0 ? Integer.valueOf(id) : workoutIds.get(id);
+    }
+
+    Integer resolveExerciseId(int id) {
+        return id > 0 ? Integer.valueOf(id) : exerciseIds.get(id);
+    }
+
+    // REPLAY
+    // Applies records oldest first until the journal is empty or the database fails; returns how many were applied
+    public synchronized int replay() throws DatabaseOperationException {
+        int applied = 0;
+        while (true) {
+            JournalRecord record;
+            synchronized (unapplied) {
+                record = unapplied.peekFirst();
+            }
+            if (record == null) break;
+
+            try {
+                int createdId = transactions.execute(tx -> {
+                    int done = appliedOps.findApplied(record.getOpId());
+                    if (done != JournalAppliedRepository.NOT_APPLIED) return done;
+                    int created = apply(record);
+                    appliedOps.markApplied(record.getOpId(), created, false);
+                    return created;
+                });
+                settled(record, createdId);
+                applied++;
+            } catch (DuplicateKeyException | ForeignKeyViolationException | Rejected e) {
+                appliedOps.markApplied(record.getOpId(), 0, true);
+                settled(record, 0);
+                listener.failed(record, e);
+            }
+        }
+        compactIfDrained();
+        return applied;
+    }
+
+    private void replayQuietly() {
+        replayRequested.set(false);
+        try {
+            replay();
+        } catch (DatabaseOperationException | RuntimeException e) {
+            // the database is unavailable; the records stay queued for the next round
+        }
+    }
+
+    private void requestReplay() {
+        ScheduledExecutorService current;
+        synchronized (this) {
+            current = worker;
+        }
+        if (current != null && replayRequested.compareAndSet(false, true)) {
+            try {
+                current.execute(this::replayQuietly);
+            } catch (RuntimeException e) {
+                replayRequested.set(false);
+            }
+        }
+    }
+
+    // 0 if the op creates nothing
+    private int apply(JournalRecord record) throws DatabaseOperationException {
+        switch (record.getOp()) {
+            case CREATE_WORKOUT: {
+                Workout workout = newWorkout(record.getText(), record.getName(), record.getA());
+                workouts.create(workout);
+                return workout.getId();
+            }
+            case UPDATE_WORKOUT: {
+                int id = requireWorkout(record.getId());
+                if (workouts.updateReturningCount(id, newWorkout(record.getText(), record.getName(), record.getA())) == 0) {
+                    throw new Rejected("Workout " + id + " not found");
+                }
+                return 0;
+            }
+            case DELETE_WORKOUT: {
+                int id = requireWorkout(record.getId());
+                if (!workouts.deleteIfExists(id)) throw new Rejected("Workout " + id + " not found");
+                return 0;
+            }
+            case CREATE_EXERCISE: {
+                Exercise exercise = new Exercise(requireWorkout(record.getRef()), record.getName(), record.getA(), record.getB());
+                exercises.create(exercise);
+                return exercise.getId();
+            }
+            case UPDATE_EXERCISE: {
+                int id = requireExercise(record.getId());
+                Exercise exercise = new Exercise(0, record.getName(), record.getA(), record.getB());
+                if (exercises.updateReturningCount(id, exercise) == 0) throw new Rejected("Exercise " + id + " not found");
+                return 0;
+            }
+            case DELETE_EXERCISE: {
+                int id = requireExercise(record.getId());
+                if (!exercises.deleteIfExists(id)) throw new Rejected("Exercise " + id + " not found");
+                return 0;
+            }
+            default:
+                throw new IllegalStateException("Unknown journal op: " + record.getOp());
+        }
+    }
+
+    private int requireWorkout(int id) throws Rejected {
+        Integer resolved = resolveWorkoutId(id);
+        if (resolved == null) throw new Rejected("Workout " + id + " was never created");
+        return resolved;
+    }
+
+    private int requireExercise(int id) throws Rejected {
+        Integer resolved = resolveExerciseId(id);
+        if (resolved == null) throw new Rejected("Exercise " + id + " was never created");
+        return resolved;
+    }
+
+    private static Workout newWorkout(String type, String name, int duration) throws Rejected {
+        WorkoutType workoutType = WorkoutType.of(type);
+        if (workoutType == null) throw new Rejected("Unknown workout type: " + type);
+        return workoutType.create(name, duration);
+    }
+
+    private void enqueue(JournalRecord record) {
+        synchronized (unapplied) {
+            unapplied.addLast(record);
+        }
+        switch (record.getOp()) {
+            case CREATE_WORKOUT -> pendingWorkouts.put(record.getId(), record);
+            case CREATE_EXERCISE -> pendingExercises.put(record.getId(), record);
+            case UPDATE_WORKOUT, DELETE_WORKOUT -> trackChange(record, workoutChanges, workoutIds);
+            case UPDATE_EXERCISE, DELETE_EXERCISE -> trackChange(record, exerciseChanges, exerciseIds);
+        }
+    }
+
+    private void trackChange(JournalRecord record, Map<Integer, JournalRecord> changes, Map<Integer, Integer> ids) {
+        synchronized (changesLock) {
+            changes.put(rowKey(record.getId(), ids), record);
+        }
+    }
+
+    private static int rowKey(int id, Map<Integer, Integer> ids) {
+        Integer resolved = id > 0 ? null : ids.get(id);
+        return resolved != null ? resolved : id;
+    }
+
+    // createdId > 0 maps the record's provisional id; the record leaves the queue either way
+    private void settled(JournalRecord record, int createdId) {
+        synchronized (changesLock) {
+            switch (record.getOp()) {
+                case CREATE_WORKOUT -> created(record.getId(), createdId, workoutIds, workoutChanges);
+                case CREATE_EXERCISE -> created(record.getId(), createdId, exerciseIds, exerciseChanges);
+                case UPDATE_WORKOUT, DELETE_WORKOUT -> workoutChanges.remove(rowKey(record.getId(), workoutIds), record);
+                case UPDATE_EXERCISE, DELETE_EXERCISE -> exerciseChanges.remove(rowKey(record.getId(), exerciseIds), record);
+            }
+        }
+        pendingWorkouts.remove(record.getId(), record);
+        pendingExercises.remove(record.getId(), record);
+        synchronized (unapplied) {
+            unapplied.pollFirst();
+        }
+    }
+
+    // later changes to the row were keyed by its provisional id; move them to the generated one
+    private static void created(int provisionalId, int createdId, Map<Integer, Integer> ids,
+                                Map<Integer, JournalRecord> changes) {
+        if (createdId <= 0) return;
+        ids.put(provisionalId, createdId);
+        JournalRecord change = changes.remove(provisionalId);
+        if (change != null) changes.put(createdId, change);
+    }
+
+    private void compactIfDrained() {
+        try {
+            long size = journal.size();
+            synchronized (unapplied) {
+                if (!unapplied.isEmpty() || submitting.get() > 0) return;
+            }
+            journal.truncateIfSize(size);
+        } catch (IOException e) {
+            System.err.println("Journal compaction failed: " + e.getMessage());
+        }
+    }
+
+    private static boolean isCreate(JournalRecord record) {
+        return record.getOp() == JournalRecord.Op.CREATE_WORKOUT || record.getOp() == JournalRecord.Op.CREATE_EXERCISE;
+    }
+
+    // The database will never accept this record
+    private static class Rejected extends DatabaseOperationException {
+        private Rejected(String message) {
+            super(message, null);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import exception.ForeignKeyViolationException;
+import model.Exercise;
+import model.Workout;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Exercise counterpart of JournalingWorkoutRepository. The workout id of a journaled exercise
+// may itself be provisional; the replayer maps it once the workout's create has been applied.
+// getByWorkoutId accepts either id of a workout and includes exercises that are still journaled.
+// Reads show journaled updates and deletes as if applied, including the cascade of a journaled
+// workout delete, and updates/deletes of a row missing from that view return 0/false.
+// Creates check the workout through the journal-aware workout repository before journaling and
+// throw ForeignKeyViolationException like the foreign key would, instead of failing at replay.
+// Summaries come from the summaries lookup while no exercise change is journaled, else they are
+// counted over getByWorkoutId, so pending exercises and workouts with a provisional id are included.
+public class JournalingExerciseRepository
+        implements CrudRepository<Exercise>, ExerciseQueries, ExerciseBatchWriter, ExerciseSummaryLookup {
+
+    private final CrudRepository<Exercise> delegate;
+    private final ExerciseQueries queries;
+    private final ExerciseSummaryLookup summaries;
+    private final CrudRepository<Workout> workouts;
+    private final JournalReplayer replayer;
+
+    public JournalingExerciseRepository(CrudRepository<Exercise> delegate, ExerciseQueries queries,
+                                        ExerciseSummaryLookup summaries, JournalingWorkoutRepository workouts,
+                                        JournalReplayer replayer) {
+        this.delegate = delegate;
+        this.queries = queries;
+        this.summaries = summaries;
+        this.workouts = workouts;
+        this.replayer = replayer;
+    }
+
+    // CREATE
+    @Override
+    public void create(Exercise exercise) throws DatabaseOperationException {
+        requireWorkout(exercise.getWorkoutId());
+        journalCreate(exercise);
+    }
+
+    private void journalCreate(Exercise exercise) throws DatabaseOperationException {
+        int provisionalId = replayer.nextProvisionalId();
+        replayer.submit(new JournalRecord(JournalReplayer.newOpId(), JournalRecord.Op.CREATE_EXERCISE,
+                provisionalId, exercise.getWorkoutId(), null, exercise.getName(), exercise.getSets(), exercise.getReps()));
+        exercise.setId(provisionalId);
+    }
+
+    // One record per exercise; unlike the JDBC batch, a failure is reported per row at replay
+    @Override
+    public void createAll(int workoutId, List<Exercise> exercises) throws DatabaseOperationException {
+        requireWorkout(workoutId);
+        for (Exercise exercise : exercises) {
+            journalCreate(exercise);
+        }
+    }
+
+    // GET ALL
+    @Override
+    public List<Exercise> getAll() throws DatabaseOperationException {
+        List<Exercise> exercises = new ArrayList<>();
+        for (Exercise exercise : delegate.getAll()) {
+            addIfPresent(exercises, exercise);
+        }
+        for (JournalRecord record : pendingInJournalOrder()) {
+            addIfPresent(exercises, toExercise(record));
+        }
+        return exercises;
+    }
+
+    // GET BY ID
+    @Override
+    public Exercise getById(int id) throws DatabaseOperationException {
+        JournalRecord pending = replayer.pendingExercise(id);
+        if (pending != null) return overlay(toExercise(pending));
+        Integer resolved = replayer.resolveExerciseId(id);
+        return resolved == null ? null : overlay(delegate.getById(resolved));
+    }
+
+    // GET BY WORKOUT ID
+    @Override
+    public List<Exercise> getByWorkoutId(int workoutId) throws DatabaseOperationException {
+        List<Exercise> exercises = new ArrayList<>();
+        if (isWorkoutDeleted(workoutId)) return exercises;
+        Integer resolved = replayer.resolveWorkoutId(workoutId);
+        if (resolved != null) {
+            for (Exercise exercise : queries.getByWorkoutId(resolved)) {
+                addIfPresent(exercises, exercise);
+            }
+        }
+        for (JournalRecord record : pendingInJournalOrder()) {
+            if (record.getRef() == workoutId || (resolved != null && record.getRef() == resolved)) {
+                addIfPresent(exercises, toExercise(record));
+            }
+        }
+        return exercises;
+    }
+
+    // SUMMARY
+    @Override
+    public ExerciseSummary getSummary(int workoutId) throws DatabaseOperationException {
+        Integer resolved = replayer.resolveWorkoutId(workoutId);
+        if (resolved != null && !isWorkoutDeleted(workoutId) && !replayer.hasPendingExerciseWrites()) {
+            ExerciseSummary applied = summaries.getSummary(resolved);
+            return new ExerciseSummary(workoutId, applied.getExerciseCount(), applied.getTotalReps());
+        }
+        int count = 0;
+        long reps = 0;
+        for (Exercise exercise : getByWorkoutId(workoutId)) {
+            count++;
+            reps += exercise.getReps();
+        }
+        return new ExerciseSummary(workoutId, count, reps);
+    }
+
+    @Override
+    public List<Exercise> getPage(int afterId, int limit) throws DatabaseOperationException {
+        return delegate.getPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Exercise> streamAll() throws DatabaseOperationException {
+        return delegate.streamAll();
+    }
+
+    // UPDATE
+    @Override
+    public void update(int id, Exercise exercise) throws DatabaseOperationException {
+        updateReturningCount(id, exercise);
+    }
+
+    @Override
+    public int updateReturningCount(int id, Exercise exercise) throws DatabaseOperationException {
+        if (getById(id) == null) return 0;
+        replayer.submit(new JournalRecord(JournalReplayer.newOpId(), JournalRecord.Op.UPDATE_EXERCISE,
+                id, 0, null, exercise.getName(), exercise.getSets(), exercise.getReps()));
+        return 1;
+    }
+
+    // DELETE
+    @Override
+    public void delete(int id) throws DatabaseOperationException {
+        deleteIfExists(id);
+    }
+
+    @Override
+    public boolean deleteIfExists(int id) throws DatabaseOperationException {
+        if (getById(id) == null) return false;
+        replayer.submit(new JournalRecord(JournalReplayer.newOpId(), JournalRecord.Op.DELETE_EXERCISE,
+                id, 0, null, null, 0, 0));
+        return true;
+    }
+
+    private void requireWorkout(int workoutId) throws DatabaseOperationException {
+        if (workouts.getById(workoutId) == null) {
+            throw new ForeignKeyViolationException("Workout " + workoutId + " not found", null);
+        }
+    }
+
+    // provisional ids count down, so journal order is descending id order
+    private List<JournalRecord> pendingInJournalOrder() {
+        List<JournalRecord> pending = replayer.pendingExercises();
+        pending.sort(Comparator.comparingInt(JournalRecord::getId).reversed());
+        return pending;
+    }
+
+    private void addIfPresent(List<Exercise> exercises, Exercise exercise) {
+        Exercise current = overlay(exercise);
+        if (current != null) exercises.add(current);
+    }
+
+    // The row as it will be once journaled changes to it (or a delete of its workout) are applied; null if deleted
+    private Exercise overlay(Exercise exercise) {
+        if (exercise == null || isWorkoutDeleted(exercise.getWorkoutId())) return null;
+        JournalRecord change = replayer.pendingExerciseChange(exercise.getId());
+        if (change == null) return exercise;
+        if (change.getOp() == JournalRecord.Op.DELETE_EXERCISE) return null;
+        Exercise updated = new Exercise(exercise.getWorkoutId(), change.getName(), change.getA(), change.getB());
+        updated.setId(exercise.getId());
+        return updated;
+    }
+
+    private boolean isWorkoutDeleted(int workoutId) {
+        JournalRecord change = replayer.pendingWorkoutChange(workoutId);
+        return change != null && change.getOp() == JournalRecord.Op.DELETE_WORKOUT;
+    }
+
+    private static Exercise toExercise(JournalRecord record) {
+        Exercise exercise = new Exercise(record.getRef(), record.getName(), record.getA(), record.getB());
+        exercise.setId(record.getId());
+        return exercise;
+    }
+}
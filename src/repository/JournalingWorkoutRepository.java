@@ -0,0 +1,249 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import exception.DuplicateKeyException;
+import model.Workout;
+import model.WorkoutType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Journal-first workout writes: a mutation is acknowledged as soon as its record is durable in
+// the journal, and the JournalReplayer applies it to the delegate afterwards.
+// create() hands out a provisional (negative) id; getById and getAll include workouts that
+// are journaled but not applied yet and show journaled updates and deletes as if applied.
+// The name lookups and queries answer from the same view, so a name taken by a journaled create
+// or rename counts as taken and one freed by a journaled rename or delete as free.
+// updateReturningCount/deleteIfExists check that the row exists in that view before journaling,
+// and create/update re-check the name under a lock (DuplicateKeyException), so two writes inside
+// one replay window cannot both take a name. Anything the database still rejects at replay
+// (e.g. a name taken by another process) goes to the replayer's FailureListener.
+// getPage, streamAll and getAllWithExercises only see applied rows.
+public class JournalingWorkoutRepository implements CrudRepository<Workout>, WorkoutQueries, WorkoutLookup {
+
+    private static final Comparator<Workout> BY_DURATION = Comparator.comparingInt(Workout::getDuration);
+
+    private final CrudRepository<Workout> delegate;
+    private final WorkoutQueries queries;
+    private final WorkoutLookup lookup;
+    private final JournalReplayer replayer;
+    // held from the name check to the journal append of a create or rename
+    private final Object namesLock = new Object();
+
+    public JournalingWorkoutRepository(CrudRepository<Workout> delegate, WorkoutQueries queries,
+                                       WorkoutLookup lookup, JournalReplayer replayer) {
+        this.delegate = delegate;
+        this.queries = queries;
+        this.lookup = lookup;
+        this.replayer = replayer;
+    }
+
+    // CREATE
+    @Override
+    public void create(Workout workout) throws DatabaseOperationException {
+        int provisionalId = replayer.nextProvisionalId();
+        synchronized (namesLock) {
+            requireFreeName(workout.getName(), 0);
+            replayer.submit(new JournalRecord(JournalReplayer.newOpId(), JournalRecord.Op.CREATE_WORKOUT,
+                    provisionalId, 0, workout.getWorkoutType(), workout.getName(), workout.getDuration(), 0));
+        }
+        workout.setId(provisionalId);
+    }
+
+    // GET ALL - applied rows first, then journaled ones in journal order
+    @Override
+    public List<Workout> getAll() throws DatabaseOperationException {
+        List<Workout> workouts = new ArrayList<>();
+        for (Workout workout : delegate.getAll()) {
+            addIfPresent(workouts, workout);
+        }
+        List<JournalRecord> pending = replayer.pendingWorkouts();
+        pending.sort(Comparator.comparingInt(JournalRecord::getId).reversed());
+        for (JournalRecord record : pending) {
+            addIfPresent(workouts, toWorkout(record));
+        }
+        return workouts;
+    }
+
+    // GET BY ID
+    @Override
+    public Workout getById(int id) throws DatabaseOperationException {
+        JournalRecord pending = replayer.pendingWorkout(id);
+        if (pending != null) return overlay(toWorkout(pending));
+        Integer resolved = replayer.resolveWorkoutId(id);
+        return resolved == null ? null : overlay(delegate.getById(resolved));
+    }
+
+    @Override
+    public List<Workout> getPage(int afterId, int limit) throws DatabaseOperationException {
+        return delegate.getPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Workout> streamAll() throws DatabaseOperationException {
+        return delegate.streamAll();
+    }
+
+    // UPDATE
+    @Override
+    public void update(int id, Workout workout) throws DatabaseOperationException {
+        updateReturningCount(id, workout);
+    }
+
+    @Override
+    public int updateReturningCount(int id, Workout workout) throws DatabaseOperationException {
+        if (getById(id) == null) return 0;
+        synchronized (namesLock) {
+            requireFreeName(workout.getName(), id);
+            replayer.submit(new JournalRecord(JournalReplayer.newOpId(), JournalRecord.Op.UPDATE_WORKOUT,
+                    id, 0, workout.getWorkoutType(), workout.getName(), workout.getDuration(), 0));
+        }
+        return 1;
+    }
+
+    // DELETE
+    @Override
+    public void delete(int id) throws DatabaseOperationException {
+        deleteIfExists(id);
+    }
+
+    @Override
+    public boolean deleteIfExists(int id) throws DatabaseOperationException {
+        if (getById(id) == null) return false;
+        replayer.submit(new JournalRecord(JournalReplayer.newOpId(), JournalRecord.Op.DELETE_WORKOUT,
+                id, 0, null, null, 0, 0));
+        return true;
+    }
+
+    // LOOKUP
+    @Override
+    public boolean existsByName(String name) throws DatabaseOperationException {
+        return existsByNameExceptId(name, 0);
+    }
+
+    // excludeId may be either id of a workout
+    @Override
+    public boolean existsByNameExceptId(String name, int excludeId) throws DatabaseOperationException {
+        Integer excluded = excludeId == 0 ? null : replayer.resolveWorkoutId(excludeId);
+        int appliedExclude = excluded != null ? excluded : 0;
+        Map<Integer, JournalRecord> changes = replayer.pendingWorkoutChanges();
+
+        // journaled creates, and journaled renames of applied rows
+        for (JournalRecord record : replayer.pendingWorkouts()) {
+            Workout pending = overlay(toWorkout(record));
+            if (pending != null && pending.getId() != excludeId && sameName(pending.getName(), name)) return true;
+        }
+        for (Map.Entry<Integer, JournalRecord> change : changes.entrySet()) {
+            JournalRecord record = change.getValue();
+            if (change.getKey() > 0 && change.getKey() != appliedExclude
+                    && record.getOp() == JournalRecord.Op.UPDATE_WORKOUT && sameName(record.getName(), name)) {
+                return true;
+            }
+        }
+
+        // applied rows; names are unique there, so the row holding it is the one that makes
+        // existsByNameExceptId false, and it has given the name up if it has a journaled change
+        if (!lookup.existsByNameExceptId(name, appliedExclude)) return false;
+        for (int changedId : changes.keySet()) {
+            if (changedId > 0 && changedId != appliedExclude && !lookup.existsByNameExceptId(name, changedId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // QUERIES
+    // Applied rows only need the delegate's answer while none of them has a journaled change;
+    // otherwise the shortest is picked from the whole view
+    @Override
+    public Workout getShortestByType(String type) throws DatabaseOperationException {
+        Workout shortest;
+        if (hasAppliedChanges()) {
+            shortest = null;
+            for (Workout workout : getAll()) {
+                if (workout.getId() > 0 && workout.getWorkoutType().equalsIgnoreCase(type)) {
+                    shortest = shorter(shortest, workout);
+                }
+            }
+        } else {
+            shortest = queries.getShortestByType(type);
+        }
+        for (JournalRecord record : replayer.pendingWorkouts()) {
+            Workout pending = overlay(toWorkout(record));
+            if (pending != null && pending.getWorkoutType().equalsIgnoreCase(type)) {
+                shortest = shorter(shortest, pending);
+            }
+        }
+        return shortest;
+    }
+
+    @Override
+    public List<Workout> getAllWithExercises() throws DatabaseOperationException {
+        return queries.getAllWithExercises();
+    }
+
+    // sorted in memory while the journal holds workout changes, else by the delegate
+    @Override
+    public List<Workout> getAllSorted(SortSpec sort) throws DatabaseOperationException {
+        if (!hasPendingChanges()) return queries.getAllSorted(sort);
+        List<Workout> workouts = getAll();
+        workouts.sort(sort.toComparator());
+        return workouts;
+    }
+
+    @Override
+    public List<Workout> getTopSorted(SortSpec sort, int limit) throws DatabaseOperationException {
+        if (!hasPendingChanges()) return queries.getTopSorted(sort, limit);
+        List<Workout> workouts = getAllSorted(sort);
+        return new ArrayList<>(workouts.subList(0, Math.min(limit, workouts.size())));
+    }
+
+    private void requireFreeName(String name, int excludeId) throws DatabaseOperationException {
+        if (existsByNameExceptId(name, excludeId)) {
+            throw new DuplicateKeyException("Workout name '" + name + "' is already taken", null);
+        }
+    }
+
+    private boolean hasPendingChanges() {
+        return !replayer.pendingWorkouts().isEmpty() || !replayer.pendingWorkoutChanges().isEmpty();
+    }
+
+    private boolean hasAppliedChanges() {
+        for (int changedId : replayer.pendingWorkoutChanges().keySet()) {
+            if (changedId > 0) return true;
+        }
+        return false;
+    }
+
+    // ties go to the row that was there first, like the (duration, id) order of the applied rows
+    private static Workout shorter(Workout current, Workout candidate) {
+        return current == null || BY_DURATION.compare(candidate, current) < 0 ? candidate : current;
+    }
+
+    private static boolean sameName(String a, String b) {
+        return a.toLowerCase(Locale.ROOT).equals(b.toLowerCase(Locale.ROOT));
+    }
+
+    private void addIfPresent(List<Workout> workouts, Workout workout) {
+        Workout current = overlay(workout);
+        if (current != null) workouts.add(current);
+    }
+
+    // The row as it will be once its journaled update/delete is applied; null if deleted.
+    // UPDATE never changes the type, like the SQL statement
+    private Workout overlay(Workout workout) {
+        if (workout == null) return null;
+        JournalRecord change = replayer.pendingWorkoutChange(workout.getId());
+        if (change == null) return workout;
+        if (change.getOp() == JournalRecord.Op.DELETE_WORKOUT) return null;
+        return workout.getType().create(workout.getId(), change.getName(), change.getA());
+    }
+
+    private static Workout toWorkout(JournalRecord record) {
+        return WorkoutType.require(record.getText()).create(record.getId(), record.getName(), record.getA());
+    }
+}
@@ -0,0 +1,199 @@
+package repository;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Append-only file of JournalRecords written through a FileChannel.
+// Each record is [int payload length][int CRC32 of payload][payload].
+// append() returns only once the record is on disk. Concurrent appenders share fsyncs
+// (group commit): whoever finds no sync running forces the channel for everything written
+// so far, and the others wait for that sync instead of issuing their own.
+// open() replays the file and cuts off a torn or corrupt tail left by a crash mid-write.
+public class MutationJournal implements AutoCloseable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private final List<JournalRecord> recovered;
+    private final Object appendMonitor = new Object();
+    private final Object syncMonitor = new Object();
+
+    // written under appendMonitor, read by the syncing thread without it
+    private volatile long writtenBytes;
+    // guarded by syncMonitor
+    private long syncedBytes;
+    private boolean syncing;
+    private long syncCount;
+
+    private MutationJournal(FileChannel channel, List<JournalRecord> recovered, long size) {
+        this.channel = channel;
+        this.recovered = recovered;
+        this.writtenBytes = size;
+        this.syncedBytes = size;
+    }
+
+    public static MutationJournal open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            List<JournalRecord> records = new ArrayList<>();
+            long validEnd = readAll(channel, records);
+            if (validEnd < channel.size()) {
+                channel.truncate(validEnd);
+                channel.force(true);
+            }
+            channel.position(validEnd);
+            return new MutationJournal(channel, records, validEnd);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Records found on disk by open(), oldest first
+    public List<JournalRecord> getRecovered() {
+        return new ArrayList<>(recovered);
+    }
+
+    // Durable once this returns
+    public void append(JournalRecord record) throws IOException {
+        byte[] payload = record.encode();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buf.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+
+        long end;
+        synchronized (appendMonitor) {
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            writtenBytes += HEADER_BYTES + payload.length;
+            end = writtenBytes;
+        }
+        awaitSynced(end);
+    }
+
+    private void awaitSynced(long end) throws IOException {
+        while (true) {
+            synchronized (syncMonitor) {
+                while (syncing && syncedBytes < end) {
+                    try {
+                        syncMonitor.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException("Interrupted waiting for journal sync", e);
+                    }
+                }
+                if (syncedBytes >= end) return;
+                syncing = true;
+            }
+
+            // everything written so far is covered by this fsync; no lock is held while forcing
+            long target = writtenBytes;
+            boolean forced = false;
+            try {
+                channel.force(false);
+                forced = true;
+            } finally {
+                synchronized (syncMonitor) {
+                    if (forced) {
+                        syncedBytes = Math.max(syncedBytes, target);
+                        syncCount++;
+                    }
+                    syncing = false;
+                    syncMonitor.notifyAll();
+                }
+            }
+        }
+    }
+
+    // Drops every record if nothing was appended past expectedSize; used once all records are applied
+    public boolean truncateIfSize(long expectedSize) throws IOException {
+        synchronized (appendMonitor) {
+            if (writtenBytes != expectedSize) return false;
+            synchronized (syncMonitor) {
+                // a sync still in flight would otherwise record a pre-truncation offset
+                while (syncing) {
+                    try {
+                        syncMonitor.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+                channel.truncate(0);
+                channel.position(0);
+                channel.force(true);
+                writtenBytes = 0;
+                syncedBytes = 0;
+            }
+            recovered.clear();
+            return true;
+        }
+    }
+
+    public long size() {
+        synchronized (appendMonitor) {
+            return writtenBytes;
+        }
+    }
+
+    public long getSyncCount() {
+        synchronized (syncMonitor) {
+            return syncCount;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Reads records from the start; returns the offset just past the last intact record
+    private static long readAll(FileChannel channel, List<JournalRecord> records) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        CRC32 crc = new CRC32();
+
+        while (position + HEADER_BYTES <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length <= 0 || length > MAX_RECORD_BYTES || position + HEADER_BYTES + length > size) break;
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + HEADER_BYTES);
+            crc.reset();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != checksum) break;
+
+            payload.flip();
+            try {
+                records.add(JournalRecord.decode(payload));
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                break;
+            }
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            int read = channel.read(buf, position + buf.position());
+            if (read < 0) throw new IOException("Unexpected end of journal");
+        }
+    }
+}
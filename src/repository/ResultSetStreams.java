@@ -0,0 +1,38 @@
+package repository;
+
+import exception.UncheckedDatabaseException;
+import utils.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Turns an open cursor into a lazy Stream. Closing the stream closes the
+// result set, the statement and returns the connection to the pool.
+class ResultSetStreams {
+
+    static final int FETCH_SIZE = 500;
+
+    static <T> Stream<T> stream(Connection conn, PreparedStatement ps, ResultSet rs, RowMapper<T> mapper) {
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!rs.next()) return false;
+                    action.accept(mapper.map(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new UncheckedDatabaseException("Failed to read next row", e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false)
+                .onClose(() -> DatabaseConnection.close(conn, ps, rs));
+    }
+}
@@ -0,0 +1,189 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import model.Workout;
+import utils.DatabaseConnection;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+// WorkoutQueries answered from per-type sets ordered by (duration, id).
+// Wraps the workout CrudRepository so every create/update/delete updates the sets in O(log n);
+// "shortest of a type" is the first element of its set. Works for any Workout subclass,
+// keyed by getWorkoutType(). Until load() succeeds, queries go to the fallback (JDBC) repository.
+public class ShortestWorkoutIndex implements CrudRepository<Workout>, WorkoutQueries {
+
+    private static final Comparator<Entry> BY_DURATION =
+            Comparator.comparingInt((Entry e) -> e.duration).thenComparingInt(e -> e.id);
+
+    private final CrudRepository<Workout> delegate;
+    private final WorkoutQueries fallback;
+    private final UnaryOperator<Workout> copyOf;
+    private final Map<String, NavigableSet<Entry>> byType = new ConcurrentHashMap<>();
+    private final Map<Integer, Entry> byId = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public ShortestWorkoutIndex(CrudRepository<Workout> delegate, WorkoutQueries fallback,
+                                UnaryOperator<Workout> copyOf) {
+        this.delegate = delegate;
+        this.fallback = fallback;
+        this.copyOf = copyOf;
+    }
+
+    public synchronized void load() throws DatabaseOperationException {
+        byType.clear();
+        byId.clear();
+        try (Stream<Workout> workouts = delegate.streamAll()) {
+            workouts.forEach(this::put);
+        }
+        loaded = true;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // QUERIES
+    @Override
+    public Workout getShortestByType(String type) throws DatabaseOperationException {
+        if (!ensureLoaded()) return fallback.getShortestByType(type);
+
+        NavigableSet<Entry> entries = byType.get(key(type));
+        if (entries == null) return null;
+        // iterator instead of first(): a concurrent delete may empty the set between calls
+        Iterator<Entry> shortest = entries.iterator();
+        return shortest.hasNext() ? copyOf.apply(shortest.next().workout) : null;
+    }
+
+    @Override
+    public List<Workout> getAllWithExercises() throws DatabaseOperationException {
+        return fallback.getAllWithExercises();
+    }
+
+    @Override
+    public List<Workout> getAllSorted(SortSpec sort) throws DatabaseOperationException {
+        return fallback.getAllSorted(sort);
+    }
+
+    @Override
+    public List<Workout> getTopSorted(SortSpec sort, int limit) throws DatabaseOperationException {
+        return fallback.getTopSorted(sort, limit);
+    }
+
+    // WRITES - the sets change only once the write is committed
+    @Override
+    public void create(Workout workout) throws DatabaseOperationException {
+        delegate.create(workout);
+        Workout snapshot = copyOf.apply(workout);
+        DatabaseConnection.afterCommit(() -> put(snapshot));
+    }
+
+    @Override
+    public void update(int id, Workout workout) throws DatabaseOperationException {
+        updateReturningCount(id, workout);
+    }
+
+    @Override
+    public int updateReturningCount(int id, Workout workout) throws DatabaseOperationException {
+        int updated = delegate.updateReturningCount(id, workout);
+        if (updated > 0) {
+            String name = workout.getName();
+            int duration = workout.getDuration();
+            Workout fallbackSnapshot = copyOf.apply(workout);
+            DatabaseConnection.afterCommit(() -> replace(id, name, duration, fallbackSnapshot));
+        }
+        return updated;
+    }
+
+    @Override
+    public void delete(int id) throws DatabaseOperationException {
+        deleteIfExists(id);
+    }
+
+    @Override
+    public boolean deleteIfExists(int id) throws DatabaseOperationException {
+        boolean deleted = delegate.deleteIfExists(id);
+        if (deleted) DatabaseConnection.afterCommit(() -> remove(id));
+        return deleted;
+    }
+
+    // READS
+    @Override
+    public List<Workout> getAll() throws DatabaseOperationException {
+        return delegate.getAll();
+    }
+
+    @Override
+    public Workout getById(int id) throws DatabaseOperationException {
+        return delegate.getById(id);
+    }
+
+    @Override
+    public List<Workout> getPage(int afterId, int limit) throws DatabaseOperationException {
+        return delegate.getPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Workout> streamAll() throws DatabaseOperationException {
+        return delegate.streamAll();
+    }
+
+    private boolean ensureLoaded() {
+        if (loaded) return true;
+        try {
+            load();
+            return true;
+        } catch (DatabaseOperationException e) {
+            return false;
+        }
+    }
+
+    // the UPDATE statement never changes the type, so keep the indexed subtype
+    private synchronized void replace(int id, String name, int duration, Workout ifMissing) {
+        Entry old = byId.get(id);
+        Workout stored = copyOf.apply(old != null ? old.workout : ifMissing);
+        stored.setId(id);
+        stored.setName(name);
+        stored.setDuration(duration);
+        remove(id);
+        put(stored);
+    }
+
+    private synchronized void put(Workout workout) {
+        Entry entry = new Entry(workout.getId(), workout.getDuration(), copyOf.apply(workout));
+        byId.put(entry.id, entry);
+        byType.computeIfAbsent(key(workout.getWorkoutType()), t -> new ConcurrentSkipListSet<>(BY_DURATION))
+                .add(entry);
+    }
+
+    private synchronized void remove(int id) {
+        Entry old = byId.remove(id);
+        if (old == null) return;
+        NavigableSet<Entry> entries = byType.get(key(old.workout.getWorkoutType()));
+        if (entries != null) entries.remove(old);
+    }
+
+    private static String key(String type) {
+        return type.toUpperCase(Locale.ROOT);
+    }
+
+    private static class Entry {
+        private final int id;
+        private final int duration;
+        private final Workout workout;
+
+        private Entry(int id, int duration, Workout workout) {
+            this.id = id;
+            this.duration = duration;
+            this.workout = workout;
+        }
+    }
+}
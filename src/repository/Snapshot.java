@@ -0,0 +1,308 @@
+package repository;
+
+import model.Exercise;
+import model.Workout;
+import model.WorkoutType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Read-only view of a snapshot file of both tables, mapped with a MappedByteBuffer so opening it
+// costs a page-table setup instead of a full scan; rows are decoded only when they are read.
+//
+// Layout (big-endian ints):
+//   header    MAGIC, VERSION, saved-at millis (long), workout count, exercise count, pool bytes, 0
+//   workouts  columns id, type, duration, name - one int per row each, rows in id order
+//   exercises columns id, workout id, sets, reps, name, by-workout - rows in id order; by-workout
+//             lists row numbers ordered by (workout id, id) so a workout's exercises are one range
+//   pool      [int length][UTF-8 bytes] per distinct string; name and type columns hold offsets into it
+public class Snapshot {
+
+    private static final int MAGIC = 0x46545331; // "FTS1"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int WORKOUT_COLUMNS = 4;
+    private static final int EXERCISE_COLUMNS = 6;
+
+    private final MappedByteBuffer buf;
+    private final long savedAt;
+    private final int workoutCount;
+    private final int exerciseCount;
+    // byte offsets of each column
+    private final int workoutIds, workoutTypes, workoutDurations, workoutNames;
+    private final int exerciseIds, exerciseWorkoutIds, exerciseSets, exerciseReps, exerciseNames, exercisesByWorkout;
+    private final int pool;
+    // a snapshot holds only a few distinct type codes; each is decoded and looked up once
+    private final Map<Integer, WorkoutType> types = new ConcurrentHashMap<>();
+
+    private Snapshot(MappedByteBuffer buf, long savedAt, int workoutCount, int exerciseCount) {
+        this.buf = buf;
+        this.savedAt = savedAt;
+        this.workoutCount = workoutCount;
+        this.exerciseCount = exerciseCount;
+
+        int w = 4 * workoutCount;
+        workoutIds = HEADER_BYTES;
+        workoutTypes = workoutIds + w;
+        workoutDurations = workoutTypes + w;
+        workoutNames = workoutDurations + w;
+
+        int e = 4 * exerciseCount;
+        exerciseIds = workoutNames + w;
+        exerciseWorkoutIds = exerciseIds + e;
+        exerciseSets = exerciseWorkoutIds + e;
+        exerciseReps = exerciseSets + e;
+        exerciseNames = exerciseReps + e;
+        exercisesByWorkout = exerciseNames + e;
+        pool = exercisesByWorkout + e;
+    }
+
+    // OPEN
+    public static Snapshot map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) throw new IOException("Not a snapshot file: " + file);
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION) throw new IOException("Not a snapshot file: " + file);
+            long savedAt = buf.getLong(8);
+            int workouts = buf.getInt(16);
+            int exercises = buf.getInt(20);
+            int poolBytes = buf.getInt(24);
+            long expected = HEADER_BYTES + 4L * WORKOUT_COLUMNS * workouts + 4L * EXERCISE_COLUMNS * exercises + poolBytes;
+            if (workouts < 0 || exercises < 0 || poolBytes < 0 || expected != size) {
+                throw new IOException("Snapshot file is truncated or corrupt: " + file);
+            }
+            return new Snapshot(buf, savedAt, workouts, exercises);
+        }
+    }
+
+    public long getSavedAt() {return savedAt;}
+    public int getWorkoutCount() {return workoutCount;}
+    public int getExerciseCount() {return exerciseCount;}
+
+    // WORKOUTS
+    public Workout getWorkout(int id) {
+        int row = find(workoutIds, workoutCount, id);
+        return row < 0 ? null : workoutAt(row);
+    }
+
+    public Stream<Workout> streamWorkouts() {
+        return IntStream.range(0, workoutCount).mapToObj(this::workoutAt);
+    }
+
+    public List<Workout> getWorkoutPage(int afterId, int limit) {
+        List<Workout> page = new ArrayList<>();
+        for (int row = firstAfter(workoutIds, workoutCount, afterId); row < workoutCount && page.size() < limit; row++) {
+            page.add(workoutAt(row));
+        }
+        return page;
+    }
+
+    // EXERCISES
+    public Exercise getExercise(int id) {
+        int row = find(exerciseIds, exerciseCount, id);
+        return row < 0 ? null : exerciseAt(row);
+    }
+
+    public Stream<Exercise> streamExercises() {
+        return IntStream.range(0, exerciseCount).mapToObj(this::exerciseAt);
+    }
+
+    public List<Exercise> getExercisePage(int afterId, int limit) {
+        List<Exercise> page = new ArrayList<>();
+        for (int row = firstAfter(exerciseIds, exerciseCount, afterId); row < exerciseCount && page.size() < limit; row++) {
+            page.add(exerciseAt(row));
+        }
+        return page;
+    }
+
+    // ordered by id, like ExerciseRepository.getByWorkoutId
+    public List<Exercise> getExercisesOf(int workoutId) {
+        // lower bound of workoutId in the by-workout order
+        int lo = 0, hi = exerciseCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (exerciseInt(exerciseWorkoutIds, byWorkoutRow(mid)) < workoutId) lo = mid + 1;
+            else hi = mid;
+        }
+        List<Exercise> exercises = new ArrayList<>();
+        for (int i = lo; i < exerciseCount; i++) {
+            int row = byWorkoutRow(i);
+            if (exerciseInt(exerciseWorkoutIds, row) != workoutId) break;
+            exercises.add(exerciseAt(row));
+        }
+        return exercises;
+    }
+
+    private Workout workoutAt(int row) {
+        int id = buf.getInt(workoutIds + 4 * row);
+        String name = string(buf.getInt(workoutNames + 4 * row));
+        int duration = buf.getInt(workoutDurations + 4 * row);
+        WorkoutType type = types.computeIfAbsent(buf.getInt(workoutTypes + 4 * row),
+                offset -> WorkoutType.require(string(offset)));
+        return type.fromStorage(id, name, duration);
+    }
+
+    private Exercise exerciseAt(int row) {
+        return Exercise.trusted(exerciseInt(exerciseIds, row), exerciseInt(exerciseWorkoutIds, row),
+                string(exerciseInt(exerciseNames, row)), exerciseInt(exerciseSets, row), exerciseInt(exerciseReps, row));
+    }
+
+    private int exerciseInt(int column, int row) {
+        return buf.getInt(column + 4 * row);
+    }
+
+    private int byWorkoutRow(int i) {
+        return buf.getInt(exercisesByWorkout + 4 * i);
+    }
+
+    private String string(int offset) {
+        int length = buf.getInt(pool + offset);
+        byte[] bytes = new byte[length];
+        buf.get(pool + offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // row holding id, or -1
+    private int find(int column, int count, int id) {
+        int row = firstAfter(column, count, id - 1);
+        return row < count && buf.getInt(column + 4 * row) == id ? row : -1;
+    }
+
+    // first row whose id is > afterId
+    private int firstAfter(int column, int count, int afterId) {
+        int lo = 0, hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (buf.getInt(column + 4 * mid) <= afterId) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // WRITE
+    // Both streams must be ordered by id (as streamAll is). The file is written next to the target
+    // and moved over it, so a reader never maps a half-written snapshot.
+    public static void write(Path file, Stream<Workout> workouts, Stream<Exercise> exercises) throws IOException {
+        StringPool strings = new StringPool();
+
+        IntColumn wIds = new IntColumn(), wTypes = new IntColumn(), wDurations = new IntColumn(), wNames = new IntColumn();
+        for (Iterator<Workout> it = workouts.iterator(); it.hasNext(); ) {
+            Workout w = it.next();
+            checkOrder(wIds, w.getId());
+            wIds.add(w.getId());
+            wTypes.add(strings.offsetOf(w.getType().getCode()));
+            wDurations.add(w.getDuration());
+            wNames.add(strings.offsetOf(w.getName()));
+        }
+
+        IntColumn eIds = new IntColumn(), eWorkoutIds = new IntColumn(), eSets = new IntColumn(),
+                eReps = new IntColumn(), eNames = new IntColumn();
+        for (Iterator<Exercise> it = exercises.iterator(); it.hasNext(); ) {
+            Exercise e = it.next();
+            checkOrder(eIds, e.getId());
+            eIds.add(e.getId());
+            eWorkoutIds.add(e.getWorkoutId());
+            eSets.add(e.getSets());
+            eReps.add(e.getReps());
+            eNames.add(strings.offsetOf(e.getName()));
+        }
+        // rows are in id order, so sorting (workout id, row number) pairs gives (workout id, id) order
+        long[] keys = new long[eIds.size];
+        for (int row = 0; row < keys.length; row++) {
+            keys[row] = ((long) eWorkoutIds.values[row] << 32) | row;
+        }
+        Arrays.sort(keys);
+        int[] byWorkout = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            byWorkout[i] = (int) keys[i];
+        }
+
+        long size = HEADER_BYTES + 4L * WORKOUT_COLUMNS * wIds.size + 4L * EXERCISE_COLUMNS * eIds.size + strings.size;
+        if (size > Integer.MAX_VALUE) throw new IOException("Snapshot would exceed 2 GB");
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis())
+                    .putInt(wIds.size).putInt(eIds.size).putInt(strings.size).putInt(0);
+            wIds.writeTo(out);
+            wTypes.writeTo(out);
+            wDurations.writeTo(out);
+            wNames.writeTo(out);
+            eIds.writeTo(out);
+            eWorkoutIds.writeTo(out);
+            eSets.writeTo(out);
+            eReps.writeTo(out);
+            eNames.writeTo(out);
+            out.asIntBuffer().put(byWorkout);
+            out.position(out.position() + 4 * byWorkout.length);
+            out.put(strings.bytes, 0, strings.size);
+            out.force();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void checkOrder(IntColumn ids, int id) {
+        if (ids.size > 0 && ids.values[ids.size - 1] >= id) {
+            throw new IllegalArgumentException("Snapshot rows must be in id order");
+        }
+    }
+
+    private static final class IntColumn {
+        int[] values = new int[1024];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        void writeTo(ByteBuffer out) {
+            out.asIntBuffer().put(values, 0, size);
+            out.position(out.position() + 4 * size);
+        }
+    }
+
+    // Each distinct string is stored once
+    private static final class StringPool {
+        final Map<String, Integer> offsets = new HashMap<>();
+        byte[] bytes = new byte[4096];
+        int size;
+
+        int offsetOf(String s) {
+            Integer existing = offsets.get(s);
+            if (existing != null) return existing;
+
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            if (size + 4 + utf8.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + 4 + utf8.length));
+            }
+            int offset = size;
+            ByteBuffer.wrap(bytes, offset, 4).putInt(utf8.length);
+            System.arraycopy(utf8, 0, bytes, offset + 4, utf8.length);
+            size += 4 + utf8.length;
+            offsets.put(s, offset);
+            return offset;
+        }
+    }
+}
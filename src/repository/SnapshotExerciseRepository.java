@@ -0,0 +1,95 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import model.Exercise;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Exercise counterpart of SnapshotWorkoutRepository; getByWorkoutId uses the snapshot's
+// by-workout column, so it is a binary search plus the workout's own rows.
+public class SnapshotExerciseRepository implements CrudRepository<Exercise>, ExerciseQueries, ExerciseBatchWriter {
+
+    private final CrudRepository<Exercise> delegate;
+    private final ExerciseQueries queries;
+    private final ExerciseBatchWriter batchWriter;
+    private final WarmStartSnapshot snapshot;
+
+    public SnapshotExerciseRepository(CrudRepository<Exercise> delegate, ExerciseQueries queries,
+                                      ExerciseBatchWriter batchWriter, WarmStartSnapshot snapshot) {
+        this.delegate = delegate;
+        this.queries = queries;
+        this.batchWriter = batchWriter;
+        this.snapshot = snapshot;
+    }
+
+    // READS
+    @Override
+    public List<Exercise> getAll() throws DatabaseOperationException {
+        Snapshot s = snapshot.current();
+        if (s == null) return delegate.getAll();
+        return s.streamExercises().collect(Collectors.toList());
+    }
+
+    @Override
+    public Exercise getById(int id) throws DatabaseOperationException {
+        Snapshot s = snapshot.current();
+        return s == null ? delegate.getById(id) : s.getExercise(id);
+    }
+
+    @Override
+    public List<Exercise> getByWorkoutId(int workoutId) throws DatabaseOperationException {
+        Snapshot s = snapshot.current();
+        return s == null ? queries.getByWorkoutId(workoutId) : s.getExercisesOf(workoutId);
+    }
+
+    @Override
+    public List<Exercise> getPage(int afterId, int limit) throws DatabaseOperationException {
+        Snapshot s = snapshot.current();
+        return s == null ? delegate.getPage(afterId, limit) : s.getExercisePage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Exercise> streamAll() throws DatabaseOperationException {
+        Snapshot s = snapshot.current();
+        return s == null ? delegate.streamAll() : s.streamExercises();
+    }
+
+    // WRITES
+    @Override
+    public void create(Exercise exercise) throws DatabaseOperationException {
+        snapshot.release();
+        delegate.create(exercise);
+    }
+
+    @Override
+    public void createAll(int workoutId, List<Exercise> exercises) throws DatabaseOperationException {
+        snapshot.release();
+        batchWriter.createAll(workoutId, exercises);
+    }
+
+    @Override
+    public void update(int id, Exercise exercise) throws DatabaseOperationException {
+        snapshot.release();
+        delegate.update(id, exercise);
+    }
+
+    @Override
+    public int updateReturningCount(int id, Exercise exercise) throws DatabaseOperationException {
+        snapshot.release();
+        return delegate.updateReturningCount(id, exercise);
+    }
+
+    @Override
+    public void delete(int id) throws DatabaseOperationException {
+        snapshot.release();
+        delegate.delete(id);
+    }
+
+    @Override
+    public boolean deleteIfExists(int id) throws DatabaseOperationException {
+        snapshot.release();
+        return delegate.deleteIfExists(id);
+    }
+}
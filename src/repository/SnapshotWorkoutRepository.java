@@ -0,0 +1,79 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import model.Workout;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Serves workout reads from the WarmStartSnapshot while it is being served, then from the delegate.
+// Any write releases the snapshot first, so a caller never reads a snapshot that is older than
+// its own changes.
+public class SnapshotWorkoutRepository implements CrudRepository<Workout> {
+
+    private final CrudRepository<Workout> delegate;
+    private final WarmStartSnapshot snapshot;
+
+    public SnapshotWorkoutRepository(CrudRepository<Workout> delegate, WarmStartSnapshot snapshot) {
+        this.delegate = delegate;
+        this.snapshot = snapshot;
+    }
+
+    // READS
+    @Override
+    public List<Workout> getAll() throws DatabaseOperationException {
+        Snapshot s = snapshot.current();
+        if (s == null) return delegate.getAll();
+        return s.streamWorkouts().collect(Collectors.toList());
+    }
+
+    @Override
+    public Workout getById(int id) throws DatabaseOperationException {
+        Snapshot s = snapshot.current();
+        return s == null ? delegate.getById(id) : s.getWorkout(id);
+    }
+
+    @Override
+    public List<Workout> getPage(int afterId, int limit) throws DatabaseOperationException {
+        Snapshot s = snapshot.current();
+        return s == null ? delegate.getPage(afterId, limit) : s.getWorkoutPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Workout> streamAll() throws DatabaseOperationException {
+        Snapshot s = snapshot.current();
+        return s == null ? delegate.streamAll() : s.streamWorkouts();
+    }
+
+    // WRITES
+    @Override
+    public void create(Workout workout) throws DatabaseOperationException {
+        snapshot.release();
+        delegate.create(workout);
+    }
+
+    @Override
+    public void update(int id, Workout workout) throws DatabaseOperationException {
+        snapshot.release();
+        delegate.update(id, workout);
+    }
+
+    @Override
+    public int updateReturningCount(int id, Workout workout) throws DatabaseOperationException {
+        snapshot.release();
+        return delegate.updateReturningCount(id, workout);
+    }
+
+    @Override
+    public void delete(int id) throws DatabaseOperationException {
+        snapshot.release();
+        delegate.delete(id);
+    }
+
+    @Override
+    public boolean deleteIfExists(int id) throws DatabaseOperationException {
+        snapshot.release();
+        return delegate.deleteIfExists(id);
+    }
+}
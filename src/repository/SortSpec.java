@@ -0,0 +1,85 @@
+package repository;
+
+import model.Workout;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+// Multi-key sort order for workout queries, e.g.
+// SortSpec.by(WorkoutSortField.TYPE, Direction.ASC).then(WorkoutSortField.DURATION, Direction.DESC)
+public class SortSpec {
+
+    public enum Direction { ASC, DESC }
+
+    public static class Order {
+        private final WorkoutSortField field;
+        private final Direction direction;
+
+        private Order(WorkoutSortField field, Direction direction) {
+            this.field = field;
+            this.direction = direction;
+        }
+
+        public WorkoutSortField getField() {return field;}
+        public Direction getDirection() {return direction;}
+    }
+
+    private final List<Order> orders;
+
+    private SortSpec(List<Order> orders) {
+        this.orders = orders;
+    }
+
+    public static SortSpec by(WorkoutSortField field, Direction direction) {
+        return new SortSpec(List.of(new Order(field, direction)));
+    }
+
+    public SortSpec then(WorkoutSortField field, Direction direction) {
+        List<Order> next = new ArrayList<>(orders);
+        next.add(new Order(field, direction));
+        return new SortSpec(next);
+    }
+
+    public List<Order> getOrders() {
+        return Collections.unmodifiableList(orders);
+    }
+
+    // "duration_minutes ASC, id ASC"; id is appended as a tie-breaker so the order is stable
+    public String toOrderByClause() {
+        StringBuilder sql = new StringBuilder();
+        boolean hasId = false;
+        for (Order order : orders) {
+            if (sql.length() > 0) sql.append(", ");
+            sql.append(order.field.getColumn()).append(' ').append(order.direction.name());
+            hasId |= order.field == WorkoutSortField.ID;
+        }
+        if (!hasId) sql.append(", id ASC");
+        return sql.toString();
+    }
+
+    // Same order as toOrderByClause() for repositories that sort in memory;
+    // text compares case-insensitively like the default MySQL collation
+    public Comparator<Workout> toComparator() {
+        Comparator<Workout> comparator = null;
+        boolean hasId = false;
+        for (Order order : orders) {
+            Comparator<Workout> next = comparatorFor(order.field);
+            if (order.direction == Direction.DESC) next = next.reversed();
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+            hasId |= order.field == WorkoutSortField.ID;
+        }
+        if (!hasId) comparator = comparator.thenComparingInt(Workout::getId);
+        return comparator;
+    }
+
+    private static Comparator<Workout> comparatorFor(WorkoutSortField field) {
+        return switch (field) {
+            case ID -> Comparator.comparingInt(Workout::getId);
+            case NAME -> Comparator.comparing(Workout::getName, String.CASE_INSENSITIVE_ORDER);
+            case TYPE -> Comparator.comparing(Workout::getWorkoutType, String.CASE_INSENSITIVE_ORDER);
+            case DURATION -> Comparator.comparingInt(Workout::getDuration);
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package repository;
+
+import java.sql.SQLException;
+
+// Classifies vendor error codes so repositories can throw specific exceptions
+class SqlErrors {
+
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+    private static final String UNIQUE_VIOLATION_STATE = "23505";
+    private static final int MYSQL_NO_REFERENCED_ROW = 1452;
+    private static final String FOREIGN_KEY_VIOLATION_STATE = "23503";
+    private static final String H2_MISSING_PARENT_STATE = "23506";
+    private static final String DATA_EXCEPTION_CLASS = "22";
+
+    static boolean isDuplicateKey(SQLException e) {
+        return e.getErrorCode() == MYSQL_DUPLICATE_ENTRY || UNIQUE_VIOLATION_STATE.equals(e.getSQLState());
+    }
+
+    // Batch failures wrap the real error, so causes and chained exceptions are checked too
+    static boolean isForeignKeyViolation(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException && isForeignKeyCode((SQLException) t)) return true;
+        }
+        for (SQLException next = e.getNextException(); next != null; next = next.getNextException()) {
+            if (isForeignKeyCode(next)) return true;
+        }
+        return false;
+    }
+
+    // Value too long, out of range, wrong format (SQLState class 22)
+    static boolean isDataException(SQLException e) {
+        return e.getSQLState() != null && e.getSQLState().startsWith(DATA_EXCEPTION_CLASS);
+    }
+
+    private static boolean isForeignKeyCode(SQLException e) {
+        return e.getErrorCode() == MYSQL_NO_REFERENCED_ROW
+                || FOREIGN_KEY_VIOLATION_STATE.equals(e.getSQLState())
+                || H2_MISSING_PARENT_STATE.equals(e.getSQLState());
+    }
+}
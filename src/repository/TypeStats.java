@@ -0,0 +1,31 @@
+package repository;
+
+// Aggregates for one workout type, computed in SQL
+public class TypeStats {
+    private final String type;
+    private final int workoutCount;
+    private final long totalDuration;
+    private final double averageDuration;
+    private final double totalCalories;
+
+    public TypeStats(String type, int workoutCount, long totalDuration, double averageDuration, double totalCalories) {
+        this.type = type;
+        this.workoutCount = workoutCount;
+        this.totalDuration = totalDuration;
+        this.averageDuration = averageDuration;
+        this.totalCalories = totalCalories;
+    }
+
+    public String getType() {return type;}
+    public int getWorkoutCount() {return workoutCount;}
+    public long getTotalDuration() {return totalDuration;}
+    public double getAverageDuration() {return averageDuration;}
+    public double getTotalCalories() {return totalCalories;}
+
+    @Override
+    public String toString() {
+        return type + " | workouts=" + workoutCount + " | total=" + totalDuration + " min"
+                + " | avg=" + String.format("%.1f", averageDuration) + " min"
+                + " | calories=" + String.format("%.1f", totalCalories);
+    }
+}
@@ -0,0 +1,130 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import model.Exercise;
+import model.Workout;
+import utils.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Owns the snapshot file used for warm starts: load() maps the last saved Snapshot, and
+// SnapshotWorkoutRepository/SnapshotExerciseRepository serve reads from it until release() is
+// called once the database has caught up (or the first write goes through). A background job
+// re-saves the file from the database repositories periodically.
+public class WarmStartSnapshot {
+
+    public interface CatchUp {
+        // Called after release(); reloads whatever was primed from the snapshot
+        void run() throws DatabaseOperationException;
+    }
+
+    private final Path file;
+    private final CrudRepository<Workout> workouts;
+    private final CrudRepository<Exercise> exercises;
+    // both tables are read in one transaction, so no exercise is saved without its workout
+    private final TransactionTemplate transactions = new TransactionTemplate(Connection.TRANSACTION_REPEATABLE_READ);
+    private volatile Snapshot current;
+    private ScheduledExecutorService jobs;
+
+    // workouts/exercises are the database repositories the snapshot is saved from
+    public WarmStartSnapshot(Path file, CrudRepository<Workout> workouts, CrudRepository<Exercise> exercises) {
+        this.file = file;
+        this.workouts = workouts;
+        this.exercises = exercises;
+    }
+
+    // Maps the snapshot file; false (and nothing served) if it is missing or unreadable
+    public boolean load() {
+        if (!Files.exists(file)) return false;
+        try {
+            current = Snapshot.map(file);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Snapshot not loaded: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // The snapshot being served, or null once the database has taken over
+    Snapshot current() {
+        return current;
+    }
+
+    public boolean isServing() {
+        return current != null;
+    }
+
+    public void release() {
+        current = null;
+    }
+
+    // Writes the tables as the database has them now, both as of the same moment
+    public void save() throws DatabaseOperationException {
+        transactions.execute(tx -> {
+            try (Stream<Workout> w = workouts.streamAll(); Stream<Exercise> e = exercises.streamAll()) {
+                Snapshot.write(file, w, e);
+            } catch (IOException e) {
+                throw new DatabaseOperationException("Failed to write snapshot " + file, e);
+            }
+            return null;
+        });
+    }
+
+    public synchronized void startSaveJob(long periodMillis) {
+        jobs().scheduleWithFixedDelay(() -> {
+            try {
+                save();
+            } catch (DatabaseOperationException | RuntimeException e) {
+                System.err.println("Snapshot save failed: " + e.getMessage());
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Retries every retryMillis until the database answers, then releases the snapshot and runs catchUp
+    public synchronized void startCatchUp(long retryMillis, CatchUp catchUp) {
+        if (current == null) return;
+        ScheduledExecutorService executor = jobs();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    workouts.getPage(0, 1);
+                } catch (DatabaseOperationException | RuntimeException e) {
+                    executor.schedule(this, retryMillis, TimeUnit.MILLISECONDS);
+                    return;
+                }
+                release();
+                try {
+                    catchUp.run();
+                } catch (DatabaseOperationException | RuntimeException e) {
+                    System.err.println("Reload after snapshot failed: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    public synchronized void shutdown() {
+        if (jobs != null) {
+            jobs.shutdownNow();
+            jobs = null;
+        }
+    }
+
+    private ScheduledExecutorService jobs() {
+        if (jobs == null) {
+            jobs = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "snapshot-jobs");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return jobs;
+    }
+}
@@ -0,0 +1,141 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import model.Workout;
+import utils.DatabaseConnection;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// WorkoutLookup answered from an in-memory name -> id index.
+// Wraps the workout CrudRepository so every create/update/delete keeps the index current.
+// Until the index is loaded (or if loading fails) lookups go to the fallback, usually the JDBC repository.
+// Names are compared case-insensitively like the default MySQL collation; anything the index
+// misses (e.g. rows written by another process) is still rejected by the UNIQUE constraint on workout.name.
+public class WorkoutNameIndex implements CrudRepository<Workout>, WorkoutLookup {
+
+    private final CrudRepository<Workout> delegate;
+    private final WorkoutLookup fallback;
+    private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private final Map<Integer, String> namesById = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public WorkoutNameIndex(CrudRepository<Workout> delegate, WorkoutLookup fallback) {
+        this.delegate = delegate;
+        this.fallback = fallback;
+    }
+
+    // Streams every workout once; safe to call again to rebuild
+    public synchronized void load() throws DatabaseOperationException {
+        idsByName.clear();
+        namesById.clear();
+        try (Stream<Workout> workouts = delegate.streamAll()) {
+            workouts.forEach(w -> index(w.getId(), w.getName()));
+        }
+        loaded = true;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // LOOKUP
+    @Override
+    public boolean existsByName(String name) throws DatabaseOperationException {
+        if (!ensureLoaded()) return fallback.existsByName(name);
+        return idsByName.containsKey(key(name));
+    }
+
+    @Override
+    public boolean existsByNameExceptId(String name, int excludeId) throws DatabaseOperationException {
+        if (!ensureLoaded()) return fallback.existsByNameExceptId(name, excludeId);
+        Integer id = idsByName.get(key(name));
+        return id != null && id != excludeId;
+    }
+
+    // WRITES - the index changes only once the write is committed
+    @Override
+    public void create(Workout workout) throws DatabaseOperationException {
+        delegate.create(workout);
+        int id = workout.getId();
+        String name = workout.getName();
+        DatabaseConnection.afterCommit(() -> index(id, name));
+    }
+
+    @Override
+    public void update(int id, Workout workout) throws DatabaseOperationException {
+        updateReturningCount(id, workout);
+    }
+
+    @Override
+    public int updateReturningCount(int id, Workout workout) throws DatabaseOperationException {
+        int updated = delegate.updateReturningCount(id, workout);
+        if (updated > 0) {
+            String name = workout.getName();
+            DatabaseConnection.afterCommit(() -> index(id, name));
+        }
+        return updated;
+    }
+
+    @Override
+    public void delete(int id) throws DatabaseOperationException {
+        deleteIfExists(id);
+    }
+
+    @Override
+    public boolean deleteIfExists(int id) throws DatabaseOperationException {
+        boolean deleted = delegate.deleteIfExists(id);
+        if (deleted) DatabaseConnection.afterCommit(() -> unindex(id));
+        return deleted;
+    }
+
+    // READS
+    @Override
+    public List<Workout> getAll() throws DatabaseOperationException {
+        return delegate.getAll();
+    }
+
+    @Override
+    public Workout getById(int id) throws DatabaseOperationException {
+        return delegate.getById(id);
+    }
+
+    @Override
+    public List<Workout> getPage(int afterId, int limit) throws DatabaseOperationException {
+        return delegate.getPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Workout> streamAll() throws DatabaseOperationException {
+        return delegate.streamAll();
+    }
+
+    private boolean ensureLoaded() {
+        if (loaded) return true;
+        try {
+            load();
+            return true;
+        } catch (DatabaseOperationException e) {
+            return false;
+        }
+    }
+
+    private synchronized void index(int id, String name) {
+        unindex(id);
+        String key = key(name);
+        idsByName.put(key, id);
+        namesById.put(id, key);
+    }
+
+    private synchronized void unindex(int id) {
+        String oldKey = namesById.remove(id);
+        if (oldKey != null) idsByName.remove(oldKey, id);
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -3,7 +3,12 @@ package repository;
 import exception.DatabaseOperationException;
 import model.Workout;
 
+import java.util.List;
+
 public interface WorkoutQueries {
-    Workout getShortestC() throws DatabaseOperationException;
-    Workout getShortestS() throws DatabaseOperationException;
+    // type is a WorkoutType code; one parameterized query for every registered type
+    Workout getShortestByType(String type) throws DatabaseOperationException;
+    List<Workout> getAllWithExercises() throws DatabaseOperationException;
+    List<Workout> getAllSorted(SortSpec sort) throws DatabaseOperationException;
+    List<Workout> getTopSorted(SortSpec sort, int limit) throws DatabaseOperationException;
 }
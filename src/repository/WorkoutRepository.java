@@ -1,14 +1,15 @@
 package repository;
 
 import exception.DatabaseOperationException;
-import model.CardioWorkout;
-import model.StrengthWorkout;
+import exception.DuplicateKeyException;
+import model.Exercise;
 import model.Workout;
 import utils.DatabaseConnection;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class WorkoutRepository implements CrudRepository<Workout>, WorkoutQueries, WorkoutLookup {
 
@@ -33,6 +34,7 @@ public class WorkoutRepository implements CrudRepository<Workout>, WorkoutQuerie
             }
 
         } catch (SQLException e) {
+            if (SqlErrors.isDuplicateKey(e)) throw new DuplicateKeyException("Workout name already exists", e);
             throw new DatabaseOperationException("Error creating workout", e);
         }
     }
@@ -48,8 +50,9 @@ public class WorkoutRepository implements CrudRepository<Workout>, WorkoutQuerie
                 PreparedStatement ps = conn.prepareStatement(sql);
                 ResultSet rs = ps.executeQuery()
         ) {
+            RowMapper<Workout> mapper = WorkoutRowMapper.bind(rs);
             while (rs.next()) {
-                workouts.add(mapRowToWorkout(rs));
+                workouts.add(mapper.map(rs));
             }
         } catch (SQLException e) {
             throw new DatabaseOperationException("Error fetching workouts", e);
@@ -57,41 +60,151 @@ public class WorkoutRepository implements CrudRepository<Workout>, WorkoutQuerie
         return workouts;
     }
 
+    // GET ALL SORTED - ordering is done by MySQL, see SortSpec
     @Override
-    public Workout getShortestC() throws DatabaseOperationException {
-        String sql = "SELECT * FROM workout WHERE type='CARDIO' ORDER BY duration_minutes ASC LIMIT 1";
+    public List<Workout> getAllSorted(SortSpec sort) throws DatabaseOperationException {
+        List<Workout> workouts = new ArrayList<>();
+        String sql = "SELECT * FROM workout ORDER BY " + sort.toOrderByClause();
+
+        try (
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql);
+                ResultSet rs = ps.executeQuery()
+        ) {
+            RowMapper<Workout> mapper = WorkoutRowMapper.bind(rs);
+            while (rs.next()) {
+                workouts.add(mapper.map(rs));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error fetching sorted workouts", e);
+        }
+        return workouts;
+    }
+
+    // GET TOP SORTED - first `limit` rows of the given order
+    @Override
+    public List<Workout> getTopSorted(SortSpec sort, int limit) throws DatabaseOperationException {
+        List<Workout> workouts = new ArrayList<>();
+        String sql = "SELECT * FROM workout ORDER BY " + sort.toOrderByClause() + " LIMIT ?";
+
         try (
                 Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sql)
         ) {
+            ps.setInt(1, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                RowMapper<Workout> mapper = WorkoutRowMapper.bind(rs);
+                while (rs.next()) {
+                    workouts.add(mapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error fetching sorted workouts", e);
+        }
+        return workouts;
+    }
+
+    // GET PAGE (keyset)
+    @Override
+    public List<Workout> getPage(int afterId, int limit) throws DatabaseOperationException {
+        List<Workout> workouts = new ArrayList<>();
+        String sql = "SELECT * FROM workout WHERE id > ? ORDER BY id LIMIT ?";
+
+        try (
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)
+        ) {
+            ps.setInt(1, afterId);
+            ps.setInt(2, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                RowMapper<Workout> mapper = WorkoutRowMapper.bind(rs);
+                while (rs.next()) {
+                    workouts.add(mapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Error fetching workout page", e);
+        }
+        return workouts;
+    }
+
+    // STREAM ALL
+    @Override
+    public Stream<Workout> streamAll() throws DatabaseOperationException {
+        String sql = "SELECT * FROM workout ORDER BY id";
+        Connection conn = null;
+        PreparedStatement ps = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            ps = conn.prepareStatement(sql);
+            ps.setFetchSize(ResultSetStreams.FETCH_SIZE);
             ResultSet rs = ps.executeQuery();
+            return ResultSetStreams.stream(conn, ps, rs, WorkoutRowMapper.bind(rs));
+        } catch (SQLException e) {
+            DatabaseConnection.close(conn, ps, null);
+            throw new DatabaseOperationException("Error streaming workouts", e);
+        }
+    }
 
-            if (rs.next()) {
-                return mapRowToWorkout(rs);
+    // GET ALL WITH EXERCISES - one LEFT JOIN instead of one exercise query per workout
+    @Override
+    public List<Workout> getAllWithExercises() throws DatabaseOperationException {
+        List<Workout> workouts = new ArrayList<>();
+        String sql = "SELECT w.*, e.id AS exercise_id, e.workout_id, e.name AS exercise_name, e.sets, e.reps " +
+                "FROM workout w LEFT JOIN exercises e ON e.workout_id = w.id " +
+                "ORDER BY w.id, e.id";
+
+        try (
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql);
+                ResultSet rs = ps.executeQuery()
+        ) {
+            RowMapper<Workout> workoutMapper = WorkoutRowMapper.bind(rs);
+            RowMapper<Exercise> exerciseMapper = ExerciseRowMapper.bind(rs, "exercise_id", "exercise_name");
+            int workoutIdColumn = rs.findColumn("id");
+            int exerciseIdColumn = rs.findColumn("exercise_id");
+            Workout current = null;
+            while (rs.next()) {
+                int workoutId = rs.getInt(workoutIdColumn);
+                if (current == null || current.getId() != workoutId) {
+                    current = workoutMapper.map(rs);
+                    current.setExercises(new ArrayList<>());
+                    workouts.add(current);
+                }
+
+                rs.getInt(exerciseIdColumn);
+                if (rs.wasNull()) continue;
+
+                current.addExercise(exerciseMapper.map(rs));
             }
         } catch (SQLException e) {
-            throw new DatabaseOperationException("Failed to fetch shortest workout", e);
+            throw new DatabaseOperationException("Error fetching workouts with exercises", e);
         }
-        return null;
+        return workouts;
     }
 
+    // Served by idx_workout_type_duration
     @Override
-    public Workout getShortestS() throws DatabaseOperationException {
-        String sql = "SELECT * FROM workout WHERE type='STRENGTH' ORDER BY duration_minutes ASC LIMIT 1";
+    public Workout getShortestByType(String type) throws DatabaseOperationException {
+        String sql = "SELECT * FROM workout WHERE type = ? ORDER BY duration_minutes ASC, id ASC LIMIT 1";
         try (
                 Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement ps = conn.prepareStatement(sql)
         ) {
+            ps.setString(1, type);
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                return mapRowToWorkout(rs);
+                return WorkoutRowMapper.bind(rs).map(rs);
             }
         } catch (SQLException e) {
             throw new DatabaseOperationException("Failed to fetch shortest workout", e);
         }
         return null;
     }
+
     // GET BY ID
     @Override
     public Workout getById(int id) throws DatabaseOperationException {
@@ -105,7 +218,7 @@ public class WorkoutRepository implements CrudRepository<Workout>, WorkoutQuerie
             ResultSet rs = ps.executeQuery();
 
             if (rs.next()) {
-                return mapRowToWorkout(rs);
+                return WorkoutRowMapper.bind(rs).map(rs);
             }
         } catch (SQLException e) {
             throw new DatabaseOperationException("Failed to fetch workout with id " + id, e);
@@ -116,6 +229,12 @@ public class WorkoutRepository implements CrudRepository<Workout>, WorkoutQuerie
     // UPDATE
     @Override
     public void update(int id, Workout workout) throws DatabaseOperationException {
+        updateReturningCount(id, workout);
+    }
+
+    // Matched rows (Connector/J reports found rows unless useAffectedRows=true), so 0 means no such id
+    @Override
+    public int updateReturningCount(int id, Workout workout) throws DatabaseOperationException {
         String sql = "UPDATE workout SET name = ?, duration_minutes = ? WHERE id = ?";
 
         try (
@@ -126,8 +245,9 @@ public class WorkoutRepository implements CrudRepository<Workout>, WorkoutQuerie
             ps.setInt(2, workout.getDuration());
             ps.setInt(3, id);
 
-            ps.executeUpdate();
+            return ps.executeUpdate();
         } catch (SQLException e) {
+            if (SqlErrors.isDuplicateKey(e)) throw new DuplicateKeyException("Workout name already exists", e);
             throw new DatabaseOperationException("Error updating workout", e);
         }
     }
@@ -135,6 +255,11 @@ public class WorkoutRepository implements CrudRepository<Workout>, WorkoutQuerie
     // DELETE
     @Override
     public void delete(int id) throws DatabaseOperationException {
+        deleteIfExists(id);
+    }
+
+    @Override
+    public boolean deleteIfExists(int id) throws DatabaseOperationException {
         String sql = "DELETE FROM workout WHERE id = ?";
 
         try (
@@ -142,24 +267,12 @@ public class WorkoutRepository implements CrudRepository<Workout>, WorkoutQuerie
                 PreparedStatement ps = conn.prepareStatement(sql)
         ) {
             ps.setInt(1, id);
-            ps.executeUpdate();
+            return ps.executeUpdate() > 0;
         } catch (SQLException e) {
             throw new DatabaseOperationException("Error deleting workout", e);
         }
     }
 
-    // Helper method
-    private Workout mapRowToWorkout(ResultSet rs) throws SQLException {
-        int id = rs.getInt("id");
-        String name = rs.getString("name");
-        String type = rs.getString("type");
-        int duration = rs.getInt("duration_minutes");
-
-        if ("CARDIO".equalsIgnoreCase(type)) return new CardioWorkout(id, name, duration);
-        if ("STRENGTH".equalsIgnoreCase(type)) return new StrengthWorkout(id, name, duration);
-        throw new SQLException("Unknown workout type: " + type);
-    }
-
     //DUPLICATES EXCEPTION
     @Override
     public boolean existsByName(String name) throws DatabaseOperationException {
@@ -0,0 +1,30 @@
+package repository;
+
+import model.Workout;
+import model.WorkoutType;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Maps workout rows with column positions resolved once per ResultSet (bind) instead of a
+// by-name lookup per column per row. The type column picks the subtype through the
+// WorkoutType registry, and rows are built with its trusted (no re-validation) factory.
+// Public so code outside the repositories (e.g. the row mapping benchmark) can map raw ResultSets.
+public final class WorkoutRowMapper {
+
+    private WorkoutRowMapper() {}
+
+    public static RowMapper<Workout> bind(ResultSet rs) throws SQLException {
+        int id = rs.findColumn("id");
+        int name = rs.findColumn("name");
+        int type = rs.findColumn("type");
+        int duration = rs.findColumn("duration_minutes");
+        return row -> typeOf(row.getString(type)).fromStorage(row.getInt(id), row.getString(name), row.getInt(duration));
+    }
+
+    static WorkoutType typeOf(String code) throws SQLException {
+        WorkoutType type = WorkoutType.of(code);
+        if (type == null) throw new SQLException("Unknown workout type: " + code);
+        return type;
+    }
+}
@@ -0,0 +1,19 @@
+package repository;
+
+// Columns a workout query may be ordered by; only these ever reach the ORDER BY clause
+public enum WorkoutSortField {
+    ID("id"),
+    NAME("name"),
+    TYPE("type"),
+    DURATION("duration_minutes");
+
+    private final String column;
+
+    WorkoutSortField(String column) {
+        this.column = column;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+}
@@ -0,0 +1,16 @@
+package repository;
+
+import exception.DatabaseOperationException;
+
+import java.util.List;
+
+public interface WorkoutStatsQueries {
+    // One row per workout type present in the table
+    List<TypeStats> getStatsByType() throws DatabaseOperationException;
+
+    // Every workout, including those without exercises (volume 0), ordered by id
+    List<WorkoutVolume> getVolumePerWorkout() throws DatabaseOperationException;
+
+    // null if the workout does not exist
+    WorkoutVolume getVolume(int workoutId) throws DatabaseOperationException;
+}
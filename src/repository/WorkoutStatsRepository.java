@@ -0,0 +1,142 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import model.WorkoutType;
+import utils.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Dashboard aggregates computed by the database, so no workout or exercise rows are loaded.
+// Calories use the per-minute multipliers registered in WorkoutType, bound as
+// parameters of a CASE on the type column (cast, so drivers that infer INT from the ELSE branch
+// keep the fraction); types without a multiplier count 0 calories.
+public class WorkoutStatsRepository implements WorkoutStatsQueries {
+
+    private static final String VOLUME_SELECT =
+            "SELECT w.id, w.name, COUNT(e.id) AS exercise_count, COALESCE(SUM(e.sets * e.reps), 0) AS volume "
+                    + "FROM workout w LEFT JOIN exercises e ON e.workout_id = w.id ";
+
+    private final Map<String, Double> caloriesPerMinute;
+    private final String statsByTypeSql;
+
+    public WorkoutStatsRepository() {
+        this(defaultMultipliers());
+    }
+
+    public WorkoutStatsRepository(Map<String, Double> caloriesPerMinute) {
+        this.caloriesPerMinute = new LinkedHashMap<>(caloriesPerMinute);
+        this.statsByTypeSql = buildStatsByTypeSql(this.caloriesPerMinute.size());
+    }
+
+    // Served by idx_workout_type_duration without touching the table rows
+    @Override
+    public List<TypeStats> getStatsByType() throws DatabaseOperationException {
+        List<TypeStats> stats = new ArrayList<>();
+
+        try (
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(statsByTypeSql)
+        ) {
+            int i = 1;
+            for (Map.Entry<String, Double> multiplier : caloriesPerMinute.entrySet()) {
+                ps.setString(i++, multiplier.getKey());
+                ps.setDouble(i++, multiplier.getValue());
+            }
+            ResultSet rs = ps.executeQuery();
+
+            while (rs.next()) {
+                stats.add(new TypeStats(
+                        rs.getString("type").toUpperCase(Locale.ROOT),
+                        rs.getInt("workout_count"),
+                        rs.getLong("total_duration"),
+                        rs.getDouble("average_duration"),
+                        rs.getDouble("total_calories")));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Failed to compute workout stats", e);
+        }
+        return stats;
+    }
+
+    @Override
+    public List<WorkoutVolume> getVolumePerWorkout() throws DatabaseOperationException {
+        String sql = VOLUME_SELECT + "GROUP BY w.id, w.name ORDER BY w.id";
+        List<WorkoutVolume> volumes = new ArrayList<>();
+
+        try (
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)
+        ) {
+            ResultSet rs = ps.executeQuery();
+
+            while (rs.next()) {
+                volumes.add(mapRowToVolume(rs));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Failed to compute workout volume", e);
+        }
+        return volumes;
+    }
+
+    @Override
+    public WorkoutVolume getVolume(int workoutId) throws DatabaseOperationException {
+        String sql = VOLUME_SELECT + "WHERE w.id = ? GROUP BY w.id, w.name";
+
+        try (
+                Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)
+        ) {
+            ps.setInt(1, workoutId);
+            ResultSet rs = ps.executeQuery();
+
+            if (rs.next()) {
+                return mapRowToVolume(rs);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Failed to compute workout volume", e);
+        }
+        return null;
+    }
+
+    private WorkoutVolume mapRowToVolume(ResultSet rs) throws SQLException {
+        return new WorkoutVolume(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getInt("exercise_count"),
+                rs.getLong("volume"));
+    }
+
+    private static String buildStatsByTypeSql(int multipliers) {
+        StringBuilder calories = new StringBuilder();
+        if (multipliers == 0) {
+            calories.append('0');
+        } else {
+            calories.append("CASE type");
+            for (int i = 0; i < multipliers; i++) {
+                calories.append(" WHEN ? THEN CAST(? AS DECIMAL(10, 4))");
+            }
+            calories.append(" ELSE 0 END");
+        }
+
+        return "SELECT type, COUNT(*) AS workout_count, SUM(duration_minutes) AS total_duration, "
+                + "AVG(duration_minutes) AS average_duration, "
+                + "SUM(duration_minutes * " + calories + ") AS total_calories "
+                + "FROM workout GROUP BY type ORDER BY type";
+    }
+
+    private static Map<String, Double> defaultMultipliers() {
+        Map<String, Double> multipliers = new LinkedHashMap<>();
+        for (WorkoutType type : WorkoutType.values()) {
+            multipliers.put(type.getCode(), type.getCaloriesPerMinute());
+        }
+        return multipliers;
+    }
+}
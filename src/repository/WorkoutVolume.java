@@ -0,0 +1,26 @@
+package repository;
+
+// Training volume (sum of sets x reps over its exercises) for one workout
+public class WorkoutVolume {
+    private final int workoutId;
+    private final String workoutName;
+    private final int exerciseCount;
+    private final long volume;
+
+    public WorkoutVolume(int workoutId, String workoutName, int exerciseCount, long volume) {
+        this.workoutId = workoutId;
+        this.workoutName = workoutName;
+        this.exerciseCount = exerciseCount;
+        this.volume = volume;
+    }
+
+    public int getWorkoutId() {return workoutId;}
+    public String getWorkoutName() {return workoutName;}
+    public int getExerciseCount() {return exerciseCount;}
+    public long getVolume() {return volume;}
+
+    @Override
+    public String toString() {
+        return workoutId + " | " + workoutName + " | exercises=" + exerciseCount + " | volume=" + volume;
+    }
+}
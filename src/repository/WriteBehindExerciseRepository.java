@@ -0,0 +1,395 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import exception.ForeignKeyViolationException;
+import model.Exercise;
+import utils.DatabaseConnection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Write-behind mode for exercise inserts: create() queues the row, gives it a provisional
+// (negative) id and returns; a background thread writes queued rows through the batch writer
+// once batchSize rows are waiting or the oldest has waited maxDelayMillis.
+// When the queue is full, create() blocks up to offerTimeoutMillis and then fails
+// (backpressure). shutdown() writes everything still queued before returning.
+//
+// Rows that cannot be written are reported to the FlushListener, not to the caller of create():
+// a missing workout fails its whole group, any other error is retried row by row.
+// Pending rows are visible through getById, getAll and getByWorkoutId; getPage and streamAll
+// only see written rows. Update/delete of a provisional id flush first and then act on the real
+// row. Provisional ids never expire: the generated id of every written row is kept (4 bytes per
+// queued create) for the life of the repository, so an id handed out once keeps resolving; one
+// whose row failed to write reads as not found. Inside TransactionTemplate, create() writes synchronously so the surrounding
+// transaction keeps its all-or-nothing meaning.
+public class WriteBehindExerciseRepository implements CrudRepository<Exercise>, ExerciseQueries {
+
+    public interface FlushListener {
+        default void flushed(int provisionalId, Exercise written) {}
+        void failed(int provisionalId, Exercise exercise, DatabaseOperationException error);
+    }
+
+    private final CrudRepository<Exercise> delegate;
+    private final ExerciseBatchWriter batchWriter;
+    private final ExerciseQueries queries;
+    private final FlushListener listener;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final long offerTimeoutMillis;
+
+    private final BlockingQueue<Pending> queue;
+    // queued or being written, by provisional id
+    private final Map<Integer, Pending> pending = new ConcurrentHashMap<>();
+    // generated id of provisional id p at index -p - 1; 0 while queued or if the row failed. Guarded by itself
+    private final Object realIdsLock = new Object();
+    private int[] realIds = new int[1024];
+    private final AtomicInteger provisionalIds = new AtomicInteger();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    // held while a batch is written, so flush() and the background thread never interleave
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock signalLock = new ReentrantLock();
+    private final Condition workAvailable = signalLock.newCondition();
+    // creates enqueue under the read side; shutdown takes the write side, so nothing is queued after the final drain
+    private final ReentrantReadWriteLock acceptLock = new ReentrantReadWriteLock();
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public WriteBehindExerciseRepository(CrudRepository<Exercise> delegate, ExerciseBatchWriter batchWriter,
+                                         ExerciseQueries queries, FlushListener listener, int capacity,
+                                         int batchSize, long maxDelayMillis, long offerTimeoutMillis) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        if (batchSize <= 0 || batchSize > capacity) throw new IllegalArgumentException("batchSize must be in 1..capacity");
+        if (maxDelayMillis <= 0) throw new IllegalArgumentException("maxDelayMillis must be > 0");
+        if (offerTimeoutMillis < 0) throw new IllegalArgumentException("offerTimeoutMillis must be >= 0");
+        this.delegate = delegate;
+        this.batchWriter = batchWriter;
+        this.queries = queries;
+        this.listener = listener;
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.flusher = new Thread(this::runFlusher, "exercise-write-behind");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    // CREATE - queued; the exercise gets a provisional id
+    @Override
+    public void create(Exercise exercise) throws DatabaseOperationException {
+        if (DatabaseConnection.currentTransaction() == null) {
+            acceptLock.readLock().lock();
+            try {
+                if (running) {
+                    enqueue(exercise);
+                    return;
+                }
+            } finally {
+                acceptLock.readLock().unlock();
+            }
+        }
+        delegate.create(exercise);
+    }
+
+    private void enqueue(Exercise exercise) throws DatabaseOperationException {
+        int provisionalId = -provisionalIds.incrementAndGet();
+        Pending row = new Pending(provisionalId, copy(exercise), System.nanoTime());
+        pending.put(provisionalId, row);
+        boolean accepted;
+        try {
+            accepted = queue.offer(row, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            pending.remove(provisionalId);
+            throw new DatabaseOperationException("Write-behind queue is full, exercise not saved", null);
+        }
+        exercise.setId(provisionalId);
+        int queued = queue.size();
+        if (queued == 1 || queued >= batchSize) signalFlusher();
+    }
+
+    // Writes everything queued so far before returning
+    public void flush() {
+        writeLock.lock();
+        try {
+            List<Pending> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Stops accepting queued writes (later creates go straight to the database),
+    // then drains the queue and waits for the background thread
+    public void shutdown() {
+        acceptLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        signalFlusher();
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    // READS
+    @Override
+    public Exercise getById(int id) throws DatabaseOperationException {
+        if (id >= 0) return delegate.getById(id);
+        Pending row = pending.get(id);
+        if (row != null) return copy(row.exercise, id);
+        Integer realId = resolve(id);
+        return realId == null ? null : delegate.getById(realId);
+    }
+
+    @Override
+    public List<Exercise> getAll() throws DatabaseOperationException {
+        List<Exercise> exercises = delegate.getAll();
+        appendPending(exercises, 0);
+        return exercises;
+    }
+
+    @Override
+    public List<Exercise> getByWorkoutId(int workoutId) throws DatabaseOperationException {
+        List<Exercise> exercises = queries.getByWorkoutId(workoutId);
+        appendPending(exercises, workoutId);
+        return exercises;
+    }
+
+    @Override
+    public List<Exercise> getPage(int afterId, int limit) throws DatabaseOperationException {
+        return delegate.getPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Exercise> streamAll() throws DatabaseOperationException {
+        return delegate.streamAll();
+    }
+
+    // UPDATE / DELETE
+    @Override
+    public void update(int id, Exercise exercise) throws DatabaseOperationException {
+        updateReturningCount(id, exercise);
+    }
+
+    @Override
+    public int updateReturningCount(int id, Exercise exercise) throws DatabaseOperationException {
+        Integer realId = id >= 0 ? Integer.valueOf(id) : flushAndResolve(id);
+        return realId == null ? 0 : delegate.updateReturningCount(realId, exercise);
+    }
+
+    @Override
+    public void delete(int id) throws DatabaseOperationException {
+        deleteIfExists(id);
+    }
+
+    @Override
+    public boolean deleteIfExists(int id) throws DatabaseOperationException {
+        Integer realId = id >= 0 ? Integer.valueOf(id) : flushAndResolve(id);
+        return realId != null && delegate.deleteIfExists(realId);
+    }
+
+    private Integer flushAndResolve(int provisionalId) {
+        if (pending.containsKey(provisionalId)) flush();
+        return resolve(provisionalId);
+    }
+
+    private Integer resolve(int provisionalId) {
+        int index = -provisionalId - 1;
+        synchronized (realIdsLock) {
+            int realId = index < realIds.length ? realIds[index] : 0;
+            return realId == 0 ? null : realId;
+        }
+    }
+
+    private void appendPending(List<Exercise> exercises, int workoutId) {
+        for (Pending row : pending.values()) {
+            if (workoutId == 0 || row.exercise.getWorkoutId() == workoutId) {
+                exercises.add(copy(row.exercise, row.provisionalId));
+            }
+        }
+    }
+
+    // BACKGROUND FLUSH
+    private void runFlusher() {
+        while (running) {
+            try {
+                awaitBatch();
+            } catch (InterruptedException e) {
+                break;
+            }
+            writeLock.lock();
+            try {
+                List<Pending> batch = new ArrayList<>(batchSize);
+                queue.drainTo(batch, batchSize);
+                if (!batch.isEmpty()) write(batch);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    // Returns once a full batch is queued, the oldest row is due, or shutdown started
+    private void awaitBatch() throws InterruptedException {
+        signalLock.lock();
+        try {
+            while (running && queue.size() < batchSize) {
+                Pending oldest = queue.peek();
+                long waitNanos = oldest == null ? maxDelayNanos : oldest.queuedAt + maxDelayNanos - System.nanoTime();
+                if (oldest != null && waitNanos <= 0) return;
+                workAvailable.awaitNanos(waitNanos);
+            }
+        } finally {
+            signalLock.unlock();
+        }
+    }
+
+    private void signalFlusher() {
+        signalLock.lock();
+        try {
+            workAvailable.signalAll();
+        } finally {
+            signalLock.unlock();
+        }
+    }
+
+    // One createAll per workout, in queue order; the caller holds writeLock.
+    // Every row leaves pending here, written or reported to the listener, whatever the writer throws
+    private void write(List<Pending> batch) {
+        Map<Integer, List<Pending>> byWorkout = new LinkedHashMap<>();
+        for (Pending row : batch) {
+            byWorkout.computeIfAbsent(row.exercise.getWorkoutId(), k -> new ArrayList<>()).add(row);
+        }
+
+        for (Map.Entry<Integer, List<Pending>> group : byWorkout.entrySet()) {
+            List<Pending> rows = group.getValue();
+            List<Exercise> exercises = new ArrayList<>(rows.size());
+            for (Pending row : rows) {
+                exercises.add(row.exercise);
+            }
+            try {
+                writeGroup(group.getKey(), rows, exercises);
+            } catch (RuntimeException e) {
+                DatabaseOperationException error = new DatabaseOperationException("Failed to save exercise", e);
+                for (Pending row : rows) {
+                    if (pending.get(row.provisionalId) == row) failed(row, error);
+                }
+            }
+        }
+        batches.incrementAndGet();
+    }
+
+    private void writeGroup(int workoutId, List<Pending> rows, List<Exercise> exercises) {
+        try {
+            batchWriter.createAll(workoutId, exercises);
+            for (Pending row : rows) {
+                succeeded(row);
+            }
+        } catch (ForeignKeyViolationException e) {
+            for (Pending row : rows) {
+                failed(row, e);
+            }
+        } catch (DatabaseOperationException e) {
+            // find the rows that actually fail
+            for (Pending row : rows) {
+                try {
+                    delegate.create(row.exercise);
+                    succeeded(row);
+                } catch (DatabaseOperationException rowError) {
+                    failed(row, rowError);
+                }
+            }
+        }
+    }
+
+    private void succeeded(Pending row) {
+        int index = -row.provisionalId - 1;
+        synchronized (realIdsLock) {
+            if (index >= realIds.length) realIds = Arrays.copyOf(realIds, Math.max(realIds.length * 2, index + 1));
+            realIds[index] = row.exercise.getId();
+        }
+        pending.remove(row.provisionalId);
+        written.incrementAndGet();
+        notify(() -> listener.flushed(row.provisionalId, copy(row.exercise)));
+    }
+
+    private void failed(Pending row, DatabaseOperationException error) {
+        pending.remove(row.provisionalId);
+        failed.incrementAndGet();
+        notify(() -> listener.failed(row.provisionalId, copy(row.exercise), error));
+    }
+
+    // a throwing listener must not stop the flusher
+    private static void notify(Runnable callback) {
+        try {
+            callback.run();
+        } catch (RuntimeException e) {
+            System.err.println("Write-behind listener failed: " + e.getMessage());
+        }
+    }
+
+    private static Exercise copy(Exercise exercise) {
+        return copy(exercise, exercise.getId());
+    }
+
+    private static Exercise copy(Exercise exercise, int id) {
+        Exercise copy = new Exercise(exercise.getWorkoutId(), exercise.getName(), exercise.getSets(), exercise.getReps());
+        copy.setId(id);
+        return copy;
+    }
+
+    private static class Pending {
+        private final int provisionalId;
+        private final Exercise exercise;
+        private final long queuedAt;
+
+        private Pending(int provisionalId, Exercise exercise, long queuedAt) {
+            this.provisionalId = provisionalId;
+            this.exercise = exercise;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package service;
+
+import exception.DatabaseOperationException;
+import utils.DatabaseConnection;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs blocking service calls off the caller's thread for the async services.
+// Uses one virtual thread per call when the JDK has them (21+); on JDK 17 it falls back to a
+// fixed pool of platform threads. Either way a semaphore caps the number of calls that can be
+// inside JDBC at once, matched to the connection pool size by default.
+// Timeouts and cancellation surface as DatabaseOperationException: cancel() on a returned future
+// (or on a stage derived from it) completes it exceptionally instead of with CancellationException.
+public class AsyncExecutor {
+
+    @FunctionalInterface
+    public interface ServiceCall<T> {
+        T call() throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface VoidServiceCall {
+        void call() throws Exception;
+    }
+
+    private final ExecutorService executor;
+    private final ScheduledExecutorService timer;
+    private final Semaphore permits;
+    private final long timeoutMillis;
+
+    public AsyncExecutor(long timeoutMillis) {
+        this(DatabaseConnection.getPoolConfig().getMaxSize(), timeoutMillis);
+    }
+
+    public AsyncExecutor(int maxConcurrentCalls, long timeoutMillis) {
+        if (maxConcurrentCalls <= 0) throw new IllegalArgumentException("maxConcurrentCalls must be > 0");
+        if (timeoutMillis <= 0) throw new IllegalArgumentException("timeoutMillis must be > 0");
+        this.executor = newExecutor(maxConcurrentCalls);
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemonThreads("async-service-timer"));
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public <T> CompletableFuture<T> submit(ServiceCall<T> call) {
+        CompletableFuture<T> result = new ServiceFuture<>();
+
+        Future<?> task = executor.submit(() -> {
+            if (result.isDone()) return;
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                result.completeExceptionally(new DatabaseOperationException("Request cancelled while waiting for a database slot", e));
+                return;
+            }
+            try {
+                result.complete(call.call());
+            } catch (InterruptedException e) {
+                result.completeExceptionally(new DatabaseOperationException("Request cancelled", e));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                permits.release();
+            }
+        });
+
+        ScheduledFuture<?> timeout = timer.schedule(() -> {
+            result.completeExceptionally(new DatabaseOperationException(
+                    "Request timed out after " + timeoutMillis + " ms", new TimeoutException()));
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+
+        // On timeout or cancel(), stop the worker too; a call blocked in JDBC sees the interrupt
+        // as soon as the driver checks it
+        result.whenComplete((value, error) -> {
+            timeout.cancel(false);
+            if (error != null) task.cancel(true);
+        });
+        return result;
+    }
+
+    public CompletableFuture<Void> run(VoidServiceCall call) {
+        return submit(() -> {
+            call.call();
+            return null;
+        });
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+        executor.shutdown();
+    }
+
+    // cancel() completes with DatabaseOperationException, so callers handle every failure the same way
+    private static class ServiceFuture<T> extends CompletableFuture<T> {
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return completeExceptionally(new DatabaseOperationException("Request cancelled", new CancellationException()));
+        }
+
+        @Override
+        public <U> CompletableFuture<U> newIncompleteFuture() {
+            return new ServiceFuture<>();
+        }
+    }
+
+    private static ExecutorService newExecutor(int platformThreads) {
+        try {
+            Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtual.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(platformThreads, daemonThreads("async-service"));
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
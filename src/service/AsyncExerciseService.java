@@ -0,0 +1,45 @@
+package service;
+
+import model.Exercise;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncExerciseService implements IAsyncExerciseService {
+
+    private final IExerciseService exerciseService;
+    private final AsyncExecutor executor;
+
+    public AsyncExerciseService(IExerciseService exerciseService, AsyncExecutor executor) {
+        this.exerciseService = exerciseService;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Void> addExercise(int workoutId, Exercise exercise) {
+        return executor.run(() -> exerciseService.addExercise(workoutId, exercise));
+    }
+
+    public CompletableFuture<Void> addExercises(int workoutId, List<Exercise> exercises) {
+        return executor.run(() -> exerciseService.addExercises(workoutId, exercises));
+    }
+
+    public CompletableFuture<Void> updateExercise(int id, Exercise exercise) {
+        return executor.run(() -> exerciseService.updateExercise(id, exercise));
+    }
+
+    public CompletableFuture<Exercise> getExerciseById(int id) {
+        return executor.submit(() -> exerciseService.getExerciseById(id));
+    }
+
+    public CompletableFuture<List<Exercise>> getExercisesByWorkout(int workoutId) {
+        return executor.submit(() -> exerciseService.getExercisesByWorkout(workoutId));
+    }
+
+    public CompletableFuture<List<Exercise>> getExercisesPage(int afterId, int limit) {
+        return executor.submit(() -> exerciseService.getExercisesPage(afterId, limit));
+    }
+
+    public CompletableFuture<Void> deleteExercise(int id) {
+        return executor.run(() -> exerciseService.deleteExercise(id));
+    }
+}
@@ -0,0 +1,67 @@
+package service;
+
+import model.Workout;
+import repository.ExerciseSummary;
+import repository.SortSpec;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncWorkoutService implements IAsyncWorkoutService {
+
+    private final IWorkoutService workoutService;
+    private final AsyncExecutor executor;
+
+    public AsyncWorkoutService(IWorkoutService workoutService, AsyncExecutor executor) {
+        this.workoutService = workoutService;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Void> createWorkout(Workout workout) {
+        return executor.run(() -> workoutService.createWorkout(workout));
+    }
+
+    public CompletableFuture<List<Workout>> getAllWorkouts() {
+        return executor.submit(workoutService::getAllWorkouts);
+    }
+
+    public CompletableFuture<List<Workout>> getWorkoutsPage(int afterId, int limit) {
+        return executor.submit(() -> workoutService.getWorkoutsPage(afterId, limit));
+    }
+
+    public CompletableFuture<List<Workout>> getAllWorkoutsWithExercises() {
+        return executor.submit(workoutService::getAllWorkoutsWithExercises);
+    }
+
+    public CompletableFuture<List<Workout>> getAllWorkoutsSortedByDuration() {
+        return executor.submit(workoutService::getAllWorkoutsSortedByDuration);
+    }
+
+    public CompletableFuture<List<Workout>> getAllWorkoutsSorted(SortSpec sort) {
+        return executor.submit(() -> workoutService.getAllWorkoutsSorted(sort));
+    }
+
+    public CompletableFuture<List<Workout>> getShortestWorkouts(int limit) {
+        return executor.submit(() -> workoutService.getShortestWorkouts(limit));
+    }
+
+    public CompletableFuture<Workout> getWorkoutById(int id) {
+        return executor.submit(() -> workoutService.getWorkoutById(id));
+    }
+
+    public CompletableFuture<Workout> getShortestByType(String type) {
+        return executor.submit(() -> workoutService.getShortestByType(type));
+    }
+
+    public CompletableFuture<ExerciseSummary> getExerciseSummary(int workoutId) {
+        return executor.submit(() -> workoutService.getExerciseSummary(workoutId));
+    }
+
+    public CompletableFuture<Void> updateWorkout(int id, Workout workout) {
+        return executor.run(() -> workoutService.updateWorkout(id, workout));
+    }
+
+    public CompletableFuture<Void> deleteWorkout(int id) {
+        return executor.run(() -> workoutService.deleteWorkout(id));
+    }
+}
@@ -0,0 +1,429 @@
+package service;
+
+import exception.DatabaseOperationException;
+import exception.DuplicateKeyException;
+import exception.ForeignKeyViolationException;
+import exception.InvalidDataException;
+import exception.InvalidInputException;
+import model.Exercise;
+import model.Workout;
+import model.WorkoutType;
+import repository.BulkImportWriter;
+import utils.DatabaseConnection;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Streaming import of workouts and exercises from a CSV or JSON-lines file.
+//
+// One row per line; blank lines and lines starting with # are skipped.
+//   CSV    workout,<type>,<name>,<duration>
+//          exercise,<workout name>,<name>,<sets>,<reps>
+//          fields may be "quoted"; a first line starting with "kind," is a header
+//   JSONL  {"kind":"workout","type":"CARDIO","name":"Morning Run","duration":30}
+//          {"kind":"exercise","workout":"Morning Run","name":"Sprint","sets":3,"reps":10}
+// An exercise names its workout, which must be stored already or appear earlier in the file.
+//
+// The calling thread reads the file in chunks of lines; a pool parses and validates chunks in
+// parallel with the WorkoutService/ExerciseService rules. At most 2 * threads chunks and
+// 2 * threads write batches are in flight, so memory does not grow with the file. Chunks are
+// taken back in file order: workout names are deduplicated against a map of stored and imported
+// names, then rows are written as multi-row inserts of batchSize rows, up to `threads` at a
+// time, each on its own pooled connection. Exercise batches are written while the next chunk
+// is processed. A batch rejected by a constraint is retried row by row, so only the offending
+// rows are rejected; any other database error aborts the import.
+//
+// Rows are written straight through the BulkImportWriter: caches and indexes above the
+// repositories must be reloaded afterwards.
+public class BulkImportService implements IBulkImportService {
+
+    private static final int CHUNK_LINES = 2_000;
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final int MAX_LISTED_REJECTIONS = 100;
+    // map value of a name whose workout is being written
+    private static final int PENDING = 0;
+
+    private enum Format {CSV, JSON_LINES}
+
+    private final BulkImportWriter writer;
+    private final int threads;
+    private final int batchSize;
+
+    // One connection of the pool is left for the rest of the application
+    public BulkImportService(BulkImportWriter writer) {
+        this(writer, Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                DatabaseConnection.getPoolConfig().getMaxSize() - 1)), DEFAULT_BATCH_SIZE);
+    }
+
+    public BulkImportService(BulkImportWriter writer, int threads, int batchSize) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be >= 1");
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be >= 1");
+        this.writer = writer;
+        this.threads = threads;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public ImportReport importFile(Path file) throws InvalidInputException, DatabaseOperationException {
+        Format format = formatOf(file);
+        if (!Files.isReadable(file)) throw new InvalidInputException("Cannot read " + file);
+
+        long start = System.nanoTime();
+        Run run = new Run();
+        writer.loadWorkoutIds((name, id) -> run.workoutIds.put(nameKey(name), id));
+
+        ExecutorService validators = Executors.newFixedThreadPool(threads, daemon("import-validate"));
+        ExecutorService writers = Executors.newFixedThreadPool(threads, daemon("import-write"));
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Deque<Future<Chunk>> inFlight = new ArrayDeque<>();
+            List<String> lines = new ArrayList<>(CHUNK_LINES);
+            int firstLine = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+                if (lines.size() == CHUNK_LINES) {
+                    List<String> chunk = lines;
+                    int first = firstLine;
+                    inFlight.addLast(validators.submit(() -> parse(chunk, first, format)));
+                    firstLine += CHUNK_LINES;
+                    lines = new ArrayList<>(CHUNK_LINES);
+                    if (inFlight.size() >= 2 * threads) write(await(inFlight.removeFirst()), run, writers);
+                }
+            }
+            if (!lines.isEmpty()) {
+                List<String> chunk = lines;
+                int first = firstLine;
+                inFlight.addLast(validators.submit(() -> parse(chunk, first, format)));
+            }
+            while (!inFlight.isEmpty()) {
+                write(await(inFlight.removeFirst()), run, writers);
+            }
+            flushExercises(run, writers);
+            // every permit back means every exercise batch has finished
+            acquire(run.writePermits, 2 * threads);
+            run.throwIfFailed();
+        } catch (IOException e) {
+            throw new InvalidInputException("Cannot read " + file + ": " + e.getMessage());
+        } finally {
+            validators.shutdownNow();
+            writers.shutdownNow();
+        }
+
+        List<ImportReport.Rejection> listed = run.listedRejections();
+        listed.sort(Comparator.comparingInt(ImportReport.Rejection::getLine));
+        return new ImportReport(run.workouts.get(), run.exercises.get(), run.rejected.get(), listed,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // PARSE + VALIDATE (pool threads)
+    private Chunk parse(List<String> lines, int firstLine, Format format) {
+        Chunk chunk = new Chunk();
+        for (int i = 0; i < lines.size(); i++) {
+            int lineNo = firstLine + i;
+            String text = lines.get(i).strip();
+            if (text.isEmpty() || text.startsWith("#")) continue;
+            if (format == Format.CSV && lineNo == 1 && text.regionMatches(true, 0, "kind,", 0, 5)) continue;
+
+            try {
+                Map<String, String> fields = format == Format.CSV ? csvFields(text) : ImportLines.json(text);
+                String kind = fields.get("kind");
+                if ("workout".equalsIgnoreCase(kind)) {
+                    chunk.workouts.add(new Row<>(lineNo, null, toWorkout(fields)));
+                } else if ("exercise".equalsIgnoreCase(kind)) {
+                    chunk.exercises.add(new Row<>(lineNo, required(fields, "workout"), toExercise(fields)));
+                } else {
+                    throw new InvalidInputException(kind == null ? "Missing kind" : "Unknown kind: " + kind);
+                }
+            } catch (InvalidInputException | IllegalArgumentException e) {
+                // IllegalArgumentException: the model's own setter checks
+                chunk.rejections.add(new ImportReport.Rejection(lineNo, e.getMessage()));
+            }
+        }
+        return chunk;
+    }
+
+    private static Map<String, String> csvFields(String text) throws InvalidInputException {
+        List<String> values = ImportLines.csv(text);
+        String kind = values.get(0);
+        String[] names;
+        if ("workout".equalsIgnoreCase(kind)) names = new String[]{"kind", "type", "name", "duration"};
+        else if ("exercise".equalsIgnoreCase(kind)) names = new String[]{"kind", "workout", "name", "sets", "reps"};
+        else throw new InvalidInputException("Unknown kind: " + kind);
+
+        if (values.size() != names.length) {
+            throw new InvalidInputException("Expected " + names.length + " fields for " + kind + ", got " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            fields.put(names[i], values.get(i));
+        }
+        return fields;
+    }
+
+    private static Workout toWorkout(Map<String, String> fields) throws InvalidInputException {
+        String code = required(fields, "type");
+        WorkoutType type = WorkoutType.of(code);
+        if (type == null) throw new InvalidInputException("Unknown workout type: " + code);
+
+        Workout workout = type.create(required(fields, "name"), wholeNumber(fields, "duration"));
+        WorkoutService.validateWorkout(workout);
+        return workout;
+    }
+
+    private static Exercise toExercise(Map<String, String> fields) throws InvalidInputException {
+        // the workout id is filled in once the workout's name is resolved
+        Exercise exercise = new Exercise(0, required(fields, "name"),
+                wholeNumber(fields, "sets"), wholeNumber(fields, "reps"));
+        ExerciseService.validateExercise(exercise);
+        return exercise;
+    }
+
+    private static String required(Map<String, String> fields, String name) throws InvalidInputException {
+        String value = fields.get(name);
+        if (value == null || value.isBlank()) throw new InvalidInputException("Missing " + name);
+        return value;
+    }
+
+    private static int wholeNumber(Map<String, String> fields, String name) throws InvalidInputException {
+        String value = required(fields, name);
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException(name + " must be a whole number: " + value);
+        }
+    }
+
+    // DEDUPE + WRITE (calling thread, chunks in file order)
+    private void write(Chunk chunk, Run run, ExecutorService writers) throws DatabaseOperationException {
+        run.throwIfFailed();
+        for (ImportReport.Rejection rejection : chunk.rejections) {
+            run.reject(rejection.getLine(), rejection.getReason());
+        }
+
+        List<Row<Workout>> workouts = new ArrayList<>();
+        for (Row<Workout> row : chunk.workouts) {
+            String name = row.value.getName();
+            if (run.workoutIds.putIfAbsent(nameKey(name), PENDING) != null) {
+                run.reject(row.line, "Duplicate workout name '" + name + "'");
+            } else {
+                workouts.add(row);
+            }
+        }
+
+        // the chunk's exercises may need these ids, so wait for the workouts
+        List<Future<List<Row<Workout>>>> batches = new ArrayList<>();
+        for (int from = 0; from < workouts.size(); from += batchSize) {
+            List<Row<Workout>> batch = workouts.subList(from, Math.min(from + batchSize, workouts.size()));
+            batches.add(writers.submit(() -> writeRows(batch, writer::insertWorkouts, run.workouts, run)));
+        }
+        try {
+            for (Future<List<Row<Workout>>> batch : batches) {
+                for (Row<Workout> written : await(batch)) {
+                    run.workoutIds.put(nameKey(written.value.getName()), written.value.getId());
+                }
+            }
+        } catch (DatabaseOperationException e) {
+            run.fail(e);
+            run.throwIfFailed();
+        }
+        for (Row<Workout> row : workouts) {
+            run.workoutIds.remove(nameKey(row.value.getName()), PENDING);
+        }
+
+        for (Row<Exercise> row : chunk.exercises) {
+            Integer workoutId = run.workoutIds.get(nameKey(row.ref));
+            if (workoutId == null) {
+                run.reject(row.line, "Unknown workout '" + row.ref + "'");
+                continue;
+            }
+            row.value.setWorkoutId(workoutId);
+            run.exerciseBatch.add(row);
+            if (run.exerciseBatch.size() == batchSize) flushExercises(run, writers);
+        }
+    }
+
+    // a part-filled batch is carried into the next chunk, so only the last one is short
+    private void flushExercises(Run run, ExecutorService writers) throws DatabaseOperationException {
+        if (run.exerciseBatch.isEmpty()) return;
+        submitExercises(run.exerciseBatch, run, writers);
+        run.exerciseBatch = new ArrayList<>(batchSize);
+    }
+
+    private void submitExercises(List<Row<Exercise>> batch, Run run, ExecutorService writers)
+            throws DatabaseOperationException {
+        acquire(run.writePermits, 1);
+        writers.execute(() -> {
+            try {
+                writeRows(batch, writer::insertExercises, run.exercises, run);
+            } catch (DatabaseOperationException | RuntimeException e) {
+                run.fail(e);
+            } finally {
+                run.writePermits.release();
+            }
+        });
+    }
+
+    private interface BatchInsert<T> {
+        void insert(List<T> rows) throws DatabaseOperationException;
+    }
+
+    // The rows written; on a constraint error the batch is retried one row at a time
+    private <T> List<Row<T>> writeRows(List<Row<T>> batch, BatchInsert<T> insert, AtomicLong imported, Run run)
+            throws DatabaseOperationException {
+        List<T> values = new ArrayList<>(batch.size());
+        for (Row<T> row : batch) {
+            values.add(row.value);
+        }
+        try {
+            insert.insert(values);
+            imported.addAndGet(batch.size());
+            return batch;
+        } catch (DuplicateKeyException | ForeignKeyViolationException | InvalidDataException e) {
+            if (batch.size() == 1) {
+                run.reject(batch.get(0).line, e.getMessage());
+                return List.of();
+            }
+        }
+
+        List<Row<T>> written = new ArrayList<>();
+        for (Row<T> row : batch) {
+            try {
+                insert.insert(List.of(row.value));
+                imported.incrementAndGet();
+                written.add(row);
+            } catch (DuplicateKeyException | ForeignKeyViolationException | InvalidDataException e) {
+                run.reject(row.line, e.getMessage());
+            }
+        }
+        return written;
+    }
+
+    private static <T> T await(Future<T> future) throws DatabaseOperationException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseOperationException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DatabaseOperationException) throw (DatabaseOperationException) e.getCause();
+            throw new DatabaseOperationException("Import failed", e.getCause());
+        }
+    }
+
+    private static void acquire(Semaphore permits, int count) throws DatabaseOperationException {
+        try {
+            permits.acquire(count);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseOperationException("Import interrupted", e);
+        }
+    }
+
+    private static Format formatOf(Path file) throws InvalidInputException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) return Format.CSV;
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) return Format.JSON_LINES;
+        throw new InvalidInputException("Import files must be .csv or .jsonl: " + file);
+    }
+
+    // Same case-insensitive comparison as the UNIQUE constraint on workout.name
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    // A parsed line; ref is the workout name of an exercise
+    private static final class Row<T> {
+        private final int line;
+        private final String ref;
+        private final T value;
+
+        private Row(int line, String ref, T value) {
+            this.line = line;
+            this.ref = ref;
+            this.value = value;
+        }
+    }
+
+    private static final class Chunk {
+        private final List<Row<Workout>> workouts = new ArrayList<>();
+        private final List<Row<Exercise>> exercises = new ArrayList<>();
+        private final List<ImportReport.Rejection> rejections = new ArrayList<>();
+    }
+
+    // State of one importFile call; the counters are updated from the writer threads
+    private final class Run {
+        // name key -> id of every stored or imported workout; only the calling thread touches it
+        private final Map<String, Integer> workoutIds = new HashMap<>();
+        private List<Row<Exercise>> exerciseBatch = new ArrayList<>();
+        private final Semaphore writePermits = new Semaphore(2 * threads);
+        private final AtomicLong workouts = new AtomicLong();
+        private final AtomicLong exercises = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        // the MAX_LISTED_REJECTIONS lowest line numbers so far, highest on top; guarded by itself.
+        // Writer threads reject out of file order, so the first ones to arrive are not the earliest lines
+        private final PriorityQueue<ImportReport.Rejection> listed =
+                new PriorityQueue<>(Comparator.comparingInt(ImportReport.Rejection::getLine).reversed());
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+        void reject(int line, String reason) {
+            rejected.incrementAndGet();
+            synchronized (listed) {
+                if (listed.size() == MAX_LISTED_REJECTIONS) {
+                    if (line >= listed.peek().getLine()) return;
+                    listed.poll();
+                }
+                listed.add(new ImportReport.Rejection(line, reason));
+            }
+        }
+
+        List<ImportReport.Rejection> listedRejections() {
+            synchronized (listed) {
+                return new ArrayList<>(listed);
+            }
+        }
+
+        void fail(Exception e) {
+            failure.compareAndSet(null, e);
+        }
+
+        void throwIfFailed() throws DatabaseOperationException {
+            Exception e = failure.get();
+            if (e == null) return;
+            if (e instanceof DatabaseOperationException) {
+                throw new DatabaseOperationException("Import aborted after " + workouts.get() + " workouts and "
+                        + exercises.get() + " exercises: " + e.getMessage(), e);
+            }
+            throw new DatabaseOperationException("Import failed", e);
+        }
+    }
+}
@@ -1,84 +1,116 @@
 package service;
 
 import exception.DatabaseOperationException;
+import exception.ForeignKeyViolationException;
 import exception.InvalidInputException;
 import exception.ResourceNotFoundException;
 import model.Exercise;
-import model.Workout;
+import repository.ExerciseBatchWriter;
 import repository.ExerciseQueries;
 import repository.ExerciseRepository;
 import repository.CrudRepository;
 
 import java.util.List;
 
+// Ids must be positive, unless the service is built with provisionalIds = true: then negative ids
+// are accepted too, as the provisional ids the write-behind and journal modes hand out for rows
+// not written yet, which their repositories resolve.
 public class ExerciseService implements IExerciseService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final CrudRepository<Exercise> exerciseRepository;
     private final ExerciseQueries exerciseQueries;
-    private final CrudRepository<Workout> workoutRepository;
+    private final ExerciseBatchWriter exerciseBatchWriter;
+    private final boolean provisionalIds;
+
+    public ExerciseService(ExerciseRepository exerciseRepository) {
+        this(exerciseRepository, exerciseRepository, exerciseRepository);
+    }
+
+    public ExerciseService(CrudRepository<Exercise> exerciseRepository, ExerciseQueries exerciseQueries,
+                           ExerciseBatchWriter exerciseBatchWriter) {
+        this(exerciseRepository, exerciseQueries, exerciseBatchWriter, false);
+    }
 
-    public ExerciseService(ExerciseRepository exerciseRepository,
-                           CrudRepository<Workout> workoutRepository, ExerciseQueries exerciseQueries) {
+    // The workout's existence is checked by the exercises.workout_id foreign key, not a lookup first
+    public ExerciseService(CrudRepository<Exercise> exerciseRepository, ExerciseQueries exerciseQueries,
+                           ExerciseBatchWriter exerciseBatchWriter, boolean provisionalIds) {
         this.exerciseRepository = exerciseRepository;
-        this.workoutRepository = workoutRepository;
         this.exerciseQueries = exerciseQueries;
+        this.exerciseBatchWriter = exerciseBatchWriter;
+        this.provisionalIds = provisionalIds;
     }
 
     // CREATE
     public void addExercise(int workoutId, Exercise exercise)
             throws InvalidInputException, ResourceNotFoundException, DatabaseOperationException {
 
-        if (workoutId <= 0) {
+        if (!isValidId(workoutId)) {
             throw new InvalidInputException("Invalid workout id");
         }
 
-        if (exercise == null) {
-            throw new InvalidInputException("Exercise cannot be null");
-        }
+        validateExercise(exercise);
 
-        if (exercise.getName() == null || exercise.getName().isBlank()) {
-            throw new InvalidInputException("Exercise name cannot be empty");
+        exercise.setWorkoutId(workoutId);
+        try {
+            exerciseRepository.create(exercise);
+        } catch (ForeignKeyViolationException e) {
+            throw new ResourceNotFoundException("Workout not found");
         }
+    }
 
-        if (exercise.getSets() <= 0 || exercise.getReps() <= 0) {
-            throw new InvalidInputException("Sets and reps must be greater than 0");
+    // CREATE (bulk) - every item is validated before anything is written
+    public void addExercises(int workoutId, List<Exercise> exercises)
+            throws InvalidInputException, ResourceNotFoundException, DatabaseOperationException {
+
+        if (!isValidId(workoutId)) {
+            throw new InvalidInputException("Invalid workout id");
         }
 
-        if (workoutRepository.getById(workoutId) == null) {
-            throw new ResourceNotFoundException("Workout not found");
+        if (exercises == null || exercises.isEmpty()) {
+            throw new InvalidInputException("Exercise list cannot be empty");
         }
 
-        exercise.setWorkoutId(workoutId);
-        exerciseRepository.create(exercise);
+        for (int i = 0; i < exercises.size(); i++) {
+            Exercise exercise = exercises.get(i);
+
+            if (exercise == null) {
+                throw new InvalidInputException("Exercise #" + (i + 1) + " cannot be null");
+            }
+
+            if (exercise.getName() == null || exercise.getName().isBlank()) {
+                throw new InvalidInputException("Exercise #" + (i + 1) + ": name cannot be empty");
+            }
+
+            if (exercise.getSets() <= 0 || exercise.getReps() <= 0) {
+                throw new InvalidInputException("Exercise #" + (i + 1) + ": sets and reps must be greater than 0");
+            }
+        }
 
+        for (Exercise exercise : exercises) {
+            exercise.setWorkoutId(workoutId);
+        }
+        try {
+            exerciseBatchWriter.createAll(workoutId, exercises);
+        } catch (ForeignKeyViolationException e) {
+            throw new ResourceNotFoundException("Workout not found");
+        }
     }
 
     // UPDATE
     public void updateExercise(int id, Exercise exercise)
             throws InvalidInputException, ResourceNotFoundException, DatabaseOperationException {
 
-        if (id <= 0) {
+        if (!isValidId(id)) {
             throw new InvalidInputException("Invalid exercise id");
         }
 
-        if (exercise == null) {
-            throw new InvalidInputException("Exercise cannot be null");
-        }
+        validateExercise(exercise);
 
-        if (exercise.getName() == null || exercise.getName().isBlank()) {
-            throw new InvalidInputException("Exercise name cannot be empty");
-        }
-
-        if (exercise.getSets() <= 0 || exercise.getReps() <= 0) {
-            throw new InvalidInputException("Sets and reps must be greater than 0");
-        }
-        Exercise existing = exerciseRepository.getById(id);
-
-        if (existing == null) {
+        if (exerciseRepository.updateReturningCount(id, exercise) == 0) {
             throw new ResourceNotFoundException("Exercise not found");
         }
-        exercise.setWorkoutId(existing.getWorkoutId());
-        exerciseRepository.update(id, exercise);
     }
 
 
@@ -86,7 +118,7 @@ public class ExerciseService implements IExerciseService {
     public Exercise getExerciseById(int id)
             throws InvalidInputException, ResourceNotFoundException, DatabaseOperationException {
 
-        if (id <= 0) {
+        if (!isValidId(id)) {
             throw new InvalidInputException("Invalid exercise id");
         }
 
@@ -103,26 +135,57 @@ public class ExerciseService implements IExerciseService {
     public List<Exercise> getExercisesByWorkout(int workoutId)
             throws InvalidInputException, DatabaseOperationException {
 
-        if (workoutId <= 0) {
+        if (!isValidId(workoutId)) {
             throw new InvalidInputException("Invalid workout id");
         }
 
         return exerciseQueries.getByWorkoutId(workoutId);
     }
 
+    // GET PAGE - pass the last id of the previous page as afterId (0 for the first page)
+    public List<Exercise> getExercisesPage(int afterId, int limit)
+            throws InvalidInputException, DatabaseOperationException {
+
+        if (afterId < 0) {
+            throw new InvalidInputException("Invalid page cursor");
+        }
+
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidInputException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        return exerciseRepository.getPage(afterId, limit);
+    }
+
     // DELETE
     public void deleteExercise(int id)
             throws InvalidInputException, ResourceNotFoundException, DatabaseOperationException {
 
-        if (id <= 0) {
+        if (!isValidId(id)) {
             throw new InvalidInputException("Invalid exercise id");
         }
 
-        if (exerciseRepository.getById(id) == null) {
+        if (!exerciseRepository.deleteIfExists(id)) {
             throw new ResourceNotFoundException("Exercise not found");
         }
+    }
 
-        exerciseRepository.delete(id);
+    private boolean isValidId(int id) {
+        return id > 0 || (id < 0 && provisionalIds);
     }
-}
 
+    // static so BulkImportService applies the same rules
+    static void validateExercise(Exercise exercise) throws InvalidInputException {
+        if (exercise == null) {
+            throw new InvalidInputException("Exercise cannot be null");
+        }
+
+        if (exercise.getName() == null || exercise.getName().isBlank()) {
+            throw new InvalidInputException("Exercise name cannot be empty");
+        }
+
+        if (exercise.getSets() <= 0 || exercise.getReps() <= 0) {
+            throw new InvalidInputException("Sets and reps must be greater than 0");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package service;
+
+import model.Exercise;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Non-blocking mirror of IExerciseService. Futures complete exceptionally with the same
+// exceptions the blocking methods throw; timeouts and cancellation use DatabaseOperationException.
+public interface IAsyncExerciseService {
+
+    CompletableFuture<Void> addExercise(int workoutId, Exercise exercise);
+
+    CompletableFuture<Void> addExercises(int workoutId, List<Exercise> exercises);
+
+    CompletableFuture<Void> updateExercise(int id, Exercise exercise);
+
+    CompletableFuture<Exercise> getExerciseById(int id);
+
+    CompletableFuture<List<Exercise>> getExercisesByWorkout(int workoutId);
+
+    CompletableFuture<List<Exercise>> getExercisesPage(int afterId, int limit);
+
+    CompletableFuture<Void> deleteExercise(int id);
+}
@@ -0,0 +1,37 @@
+package service;
+
+import model.Workout;
+import repository.ExerciseSummary;
+import repository.SortSpec;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Non-blocking mirror of IWorkoutService. Futures complete exceptionally with the same
+// exceptions the blocking methods throw; timeouts and cancellation use DatabaseOperationException.
+public interface IAsyncWorkoutService {
+
+    CompletableFuture<Void> createWorkout(Workout workout);
+
+    CompletableFuture<List<Workout>> getAllWorkouts();
+
+    CompletableFuture<List<Workout>> getWorkoutsPage(int afterId, int limit);
+
+    CompletableFuture<List<Workout>> getAllWorkoutsWithExercises();
+
+    CompletableFuture<List<Workout>> getAllWorkoutsSortedByDuration();
+
+    CompletableFuture<List<Workout>> getAllWorkoutsSorted(SortSpec sort);
+
+    CompletableFuture<List<Workout>> getShortestWorkouts(int limit);
+
+    CompletableFuture<Workout> getWorkoutById(int id);
+
+    CompletableFuture<Workout> getShortestByType(String type);
+
+    CompletableFuture<ExerciseSummary> getExerciseSummary(int workoutId);
+
+    CompletableFuture<Void> updateWorkout(int id, Workout workout);
+
+    CompletableFuture<Void> deleteWorkout(int id);
+}
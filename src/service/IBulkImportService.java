@@ -0,0 +1,11 @@
+package service;
+
+import exception.DatabaseOperationException;
+import exception.InvalidInputException;
+
+import java.nio.file.Path;
+
+public interface IBulkImportService {
+
+    ImportReport importFile(Path file) throws InvalidInputException, DatabaseOperationException;
+}
@@ -12,6 +12,9 @@ public interface IExerciseService {
     void addExercise(int workoutId, Exercise exercise)
             throws InvalidInputException, ResourceNotFoundException, DatabaseOperationException;
 
+    void addExercises(int workoutId, List<Exercise> exercises)
+            throws InvalidInputException, ResourceNotFoundException, DatabaseOperationException;
+
     void updateExercise(int id, Exercise exercise)
             throws InvalidInputException, ResourceNotFoundException, DatabaseOperationException;
 
@@ -21,6 +24,9 @@ public interface IExerciseService {
     List<Exercise> getExercisesByWorkout(int workoutId)
             throws InvalidInputException, DatabaseOperationException;
 
+    List<Exercise> getExercisesPage(int afterId, int limit)
+            throws InvalidInputException, DatabaseOperationException;
+
     void deleteExercise(int id)
             throws InvalidInputException, ResourceNotFoundException, DatabaseOperationException;
 }
@@ -4,6 +4,8 @@ import exception.DatabaseOperationException;
 import exception.InvalidInputException;
 import exception.ResourceNotFoundException;
 import model.Workout;
+import repository.ExerciseSummary;
+import repository.SortSpec;
 
 import java.util.List;
 
@@ -14,15 +16,27 @@ public interface IWorkoutService {
 
     List<Workout> getAllWorkouts() throws DatabaseOperationException;
 
+    List<Workout> getWorkoutsPage(int afterId, int limit)
+            throws InvalidInputException, DatabaseOperationException;
+
+    List<Workout> getAllWorkoutsWithExercises() throws DatabaseOperationException;
+
     List<Workout> getAllWorkoutsSortedByDuration()
             throws DatabaseOperationException;
 
+    List<Workout> getAllWorkoutsSorted(SortSpec sort)
+            throws InvalidInputException, DatabaseOperationException;
+
+    List<Workout> getShortestWorkouts(int limit)
+            throws InvalidInputException, DatabaseOperationException;
+
     Workout getWorkoutById(int id)
             throws InvalidInputException, ResourceNotFoundException, DatabaseOperationException;
 
-    Workout getShortestC() throws DatabaseOperationException;
+    Workout getShortestByType(String type) throws InvalidInputException, DatabaseOperationException;
 
-    Workout getShortestS() throws DatabaseOperationException;
+    ExerciseSummary getExerciseSummary(int workoutId)
+            throws InvalidInputException, DatabaseOperationException;
 
     void updateWorkout(int id, Workout workout)
             throws InvalidInputException, ResourceNotFoundException, DatabaseOperationException;
@@ -0,0 +1,21 @@
+package service;
+
+import exception.DatabaseOperationException;
+import exception.InvalidInputException;
+import exception.ResourceNotFoundException;
+import repository.TypeStats;
+import repository.WorkoutVolume;
+
+import java.util.List;
+
+public interface IWorkoutStatsService {
+
+    List<TypeStats> getStatsByType() throws DatabaseOperationException;
+
+    double getTotalCalories() throws DatabaseOperationException;
+
+    List<WorkoutVolume> getVolumePerWorkout() throws DatabaseOperationException;
+
+    WorkoutVolume getWorkoutVolume(int workoutId)
+            throws InvalidInputException, ResourceNotFoundException, DatabaseOperationException;
+}
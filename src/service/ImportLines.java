@@ -0,0 +1,143 @@
+package service;
+
+import exception.InvalidInputException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Splits one line of an import file into fields. Only what the import formats need:
+// CSV with optional "quoted" fields ("" is a quote), and flat JSON objects of strings,
+// numbers, booleans and null.
+final class ImportLines {
+
+    private ImportLines() {}
+
+    static List<String> csv(String line) throws InvalidInputException {
+        List<String> fields = new ArrayList<>();
+        int i = 0, n = line.length();
+        while (true) {
+            while (i < n && line.charAt(i) == ' ') i++;
+            if (i < n && line.charAt(i) == '"') {
+                StringBuilder field = new StringBuilder();
+                i++;
+                while (true) {
+                    if (i >= n) throw new InvalidInputException("Unterminated quoted field");
+                    char c = line.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < n && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                while (i < n && line.charAt(i) == ' ') i++;
+                if (i < n && line.charAt(i) != ',') throw new InvalidInputException("Text after a quoted field");
+                fields.add(field.toString());
+            } else {
+                int end = line.indexOf(',', i);
+                if (end < 0) end = n;
+                fields.add(line.substring(i, end).trim());
+                i = end;
+            }
+            if (i >= n) return fields;
+            i++; // the comma
+        }
+    }
+
+    // Values come back as their text (strings unescaped); JSON null becomes a missing key
+    static Map<String, String> json(String line) throws InvalidInputException {
+        Cursor in = new Cursor(line);
+        Map<String, String> fields = new HashMap<>();
+        in.expect('{');
+        if (in.peek() == '}') {
+            in.next();
+        } else {
+            while (true) {
+                String key = in.string();
+                in.expect(':');
+                String value = in.value();
+                if (value != null) fields.put(key, value);
+                char c = in.next();
+                if (c == '}') break;
+                if (c != ',') throw new InvalidInputException("Expected , or } at column " + in.pos);
+            }
+        }
+        if (in.peek() != 0) throw new InvalidInputException("Text after the JSON object");
+        return fields;
+    }
+
+    private static final class Cursor {
+        private final String text;
+        private int pos;
+
+        private Cursor(String text) {
+            this.text = text;
+        }
+
+        // next non-blank character without consuming it; 0 at the end
+        char peek() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+            return pos < text.length() ? text.charAt(pos) : 0;
+        }
+
+        char next() throws InvalidInputException {
+            char c = peek();
+            if (c == 0) throw new InvalidInputException("Unexpected end of line");
+            pos++;
+            return c;
+        }
+
+        void expect(char c) throws InvalidInputException {
+            if (next() != c) throw new InvalidInputException("Expected " + c + " at column " + pos);
+        }
+
+        String value() throws InvalidInputException {
+            char c = peek();
+            if (c == '"') return string();
+            if (c == '{' || c == '[') throw new InvalidInputException("Nested values are not supported");
+            int start = pos;
+            while (pos < text.length() && ",} \t".indexOf(text.charAt(pos)) < 0) pos++;
+            String token = text.substring(start, pos);
+            if (token.isEmpty()) throw new InvalidInputException("Missing value at column " + start);
+            return token.equals("null") ? null : token;
+        }
+
+        String string() throws InvalidInputException {
+            expect('"');
+            StringBuilder out = new StringBuilder();
+            while (true) {
+                if (pos >= text.length()) throw new InvalidInputException("Unterminated string");
+                char c = text.charAt(pos++);
+                if (c == '"') return out.toString();
+                if (c != '\\') {
+                    out.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) throw new InvalidInputException("Unterminated string");
+                char e = text.charAt(pos++);
+                switch (e) {
+                    case '"', '\\', '/' -> out.append(e);
+                    case 'b' -> out.append('\b');
+                    case 'f' -> out.append('\f');
+                    case 'n' -> out.append('\n');
+                    case 'r' -> out.append('\r');
+                    case 't' -> out.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) throw new InvalidInputException("Bad \\u escape");
+                        try {
+                            out.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw new InvalidInputException("Bad \\u escape");
+                        }
+                        pos += 4;
+                    }
+                    default -> throw new InvalidInputException("Bad escape \\" + e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package service;
+
+import java.util.List;
+
+// Outcome of one bulk import. Only the rejected rows with the lowest line numbers are listed (see getRejections);
+// getRejectedCount counts all of them.
+public class ImportReport {
+
+    public static class Rejection {
+        private final int line;
+        private final String reason;
+
+        public Rejection(int line, String reason) {
+            this.line = line;
+            this.reason = reason;
+        }
+
+        public int getLine() {return line;}
+        public String getReason() {return reason;}
+
+        @Override
+        public String toString() {
+            return "line " + line + ": " + reason;
+        }
+    }
+
+    private final long workoutsImported;
+    private final long exercisesImported;
+    private final long rejectedCount;
+    private final List<Rejection> rejections;
+    private final long elapsedMillis;
+
+    public ImportReport(long workoutsImported, long exercisesImported, long rejectedCount,
+                        List<Rejection> rejections, long elapsedMillis) {
+        this.workoutsImported = workoutsImported;
+        this.exercisesImported = exercisesImported;
+        this.rejectedCount = rejectedCount;
+        this.rejections = List.copyOf(rejections);
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getWorkoutsImported() {return workoutsImported;}
+    public long getExercisesImported() {return exercisesImported;}
+    public long getRejectedCount() {return rejectedCount;}
+    public List<Rejection> getRejections() {return rejections;}
+    public long getElapsedMillis() {return elapsedMillis;}
+
+    // Rows read (imported or rejected) per second
+    public double getRowsPerSecond() {
+        return (workoutsImported + exercisesImported + rejectedCount) * 1000.0 / Math.max(elapsedMillis, 1);
+    }
+
+    @Override
+    public String toString() {
+        return "workouts=" + workoutsImported + " | exercises=" + exercisesImported
+                + " | rejected=" + rejectedCount + " | " + elapsedMillis + " ms"
+                + " | " + String.format("%.0f", getRowsPerSecond()) + " rows/s";
+    }
+}
@@ -1,28 +1,56 @@
 package service;
 
 import exception.DatabaseOperationException;
+import exception.DuplicateKeyException;
 import exception.DuplicateResourceException;
 import exception.InvalidInputException;
 import exception.ResourceNotFoundException;
 import model.Workout;
+import model.WorkoutType;
 import repository.CrudRepository;
+import repository.ExerciseSummary;
+import repository.ExerciseSummaryLookup;
+import repository.SortSpec;
+import repository.SortSpec.Direction;
+import repository.WorkoutSortField;
 import repository.WorkoutLookup;
 import repository.WorkoutQueries;
 import utils.SortUtils;
 
 import java.util.List;
 
+// Ids must be positive, unless the service is built with provisionalIds = true: then negative ids
+// are accepted too, as the provisional ids of workouts still in the journal (-Dfitness.journal),
+// which JournalingWorkoutRepository resolves.
 public class WorkoutService implements IWorkoutService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final SortSpec BY_DURATION = SortSpec.by(WorkoutSortField.DURATION, Direction.ASC);
+
     private final CrudRepository<Workout> workoutRepository;
     private final WorkoutQueries workoutQueries;
     private final WorkoutLookup workoutLookup;
+    private final ExerciseSummaryLookup exerciseSummaries;
+    private final boolean provisionalIds;
 
     //DIP
     public WorkoutService(CrudRepository<Workout> workoutRepository, WorkoutQueries workoutQueries,  WorkoutLookup workoutLookup) {
+        this(workoutRepository, workoutQueries, workoutLookup, null);
+    }
+
+    public WorkoutService(CrudRepository<Workout> workoutRepository, WorkoutQueries workoutQueries,
+                          WorkoutLookup workoutLookup, ExerciseSummaryLookup exerciseSummaries) {
+        this(workoutRepository, workoutQueries, workoutLookup, exerciseSummaries, false);
+    }
+
+    public WorkoutService(CrudRepository<Workout> workoutRepository, WorkoutQueries workoutQueries,
+                          WorkoutLookup workoutLookup, ExerciseSummaryLookup exerciseSummaries,
+                          boolean provisionalIds) {
         this.workoutRepository = workoutRepository;
         this.workoutQueries = workoutQueries;
         this.workoutLookup = workoutLookup;
+        this.exerciseSummaries = exerciseSummaries;
+        this.provisionalIds = provisionalIds;
     }
 
     // CREATE
@@ -33,39 +61,96 @@ public class WorkoutService implements IWorkoutService {
         if (workoutLookup.existsByName(workout.getName())) {
             throw new DuplicateResourceException("Workout with name '" + workout.getName() + "' already exists");
         }
-        workoutRepository.create(workout);
+        try {
+            workoutRepository.create(workout);
+        } catch (DuplicateKeyException e) {
+            // another writer took the name between the check and the insert
+            throw new DuplicateResourceException("Workout with name '" + workout.getName() + "' already exists");
+        }
     }
 
     // GET ALL
     public List<Workout> getAllWorkouts() throws DatabaseOperationException {
         return workoutRepository.getAll();
     }
+    // GET PAGE - pass the last id of the previous page as afterId (0 for the first page)
+    public List<Workout> getWorkoutsPage(int afterId, int limit)
+            throws InvalidInputException, DatabaseOperationException {
+
+        if (afterId < 0) {
+            throw new InvalidInputException("Invalid page cursor");
+        }
+
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidInputException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        return workoutRepository.getPage(afterId, limit);
+    }
+
+    // GET ALL WITH EXERCISES
+    public List<Workout> getAllWorkoutsWithExercises() throws DatabaseOperationException {
+        if (workoutQueries == null) {
+            throw new DatabaseOperationException("Eager exercise loading not supported by this repository", null);
+        }
+        return workoutQueries.getAllWithExercises();
+    }
+
     //GET ALL SORTED BY DURATION
     public List<Workout> getAllWorkoutsSortedByDuration() throws DatabaseOperationException {
+        if (workoutQueries != null) {
+            return workoutQueries.getAllSorted(BY_DURATION);
+        }
         List<Workout> workouts = workoutRepository.getAll();
         SortUtils.sortWorkoutsByDuration(workouts);
         return workouts;
     }
 
-    public Workout getShortestC() throws DatabaseOperationException {
+    //GET ALL SORTED (ORDER BY in SQL)
+    public List<Workout> getAllWorkoutsSorted(SortSpec sort)
+            throws InvalidInputException, DatabaseOperationException {
+
+        if (sort == null) {
+            throw new InvalidInputException("Sort order cannot be null");
+        }
         if (workoutQueries == null) {
-            throw new DatabaseOperationException("Shortest cardio not supported by this repository", null);
+            throw new DatabaseOperationException("Sorted queries not supported by this repository", null);
         }
-        return workoutQueries.getShortestC();
+        return workoutQueries.getAllSorted(sort);
     }
 
-    public Workout getShortestS() throws DatabaseOperationException {
+    //GET N SHORTEST
+    public List<Workout> getShortestWorkouts(int limit)
+            throws InvalidInputException, DatabaseOperationException {
+
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidInputException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (workoutQueries != null) {
+            return workoutQueries.getTopSorted(BY_DURATION, limit);
+        }
+        return SortUtils.topKByDuration(workoutRepository.getAll(), limit);
+    }
+
+    public Workout getShortestByType(String type) throws InvalidInputException, DatabaseOperationException {
+        if (type == null || type.isBlank()) {
+            throw new InvalidInputException("Workout type cannot be empty");
+        }
+        WorkoutType workoutType = WorkoutType.of(type);
+        if (workoutType == null) {
+            throw new InvalidInputException("Unknown workout type: " + type);
+        }
         if (workoutQueries == null) {
-            throw new DatabaseOperationException("Shortest strength not supported by this repository", null);
+            throw new DatabaseOperationException("Shortest by type not supported by this repository", null);
         }
-        return workoutQueries.getShortestS();
+        return workoutQueries.getShortestByType(workoutType.getCode());
     }
 
     // GET BY ID
     public Workout getWorkoutById(int id)
             throws InvalidInputException, ResourceNotFoundException, DatabaseOperationException {
 
-        if (id <= 0) {
+        if (!isValidId(id)) {
             throw new InvalidInputException("Invalid workout id");
         }
 
@@ -78,25 +163,43 @@ public class WorkoutService implements IWorkoutService {
         return workout;
     }
 
+    // EXERCISE SUMMARY - count / total reps without loading the exercises
+    public ExerciseSummary getExerciseSummary(int workoutId)
+            throws InvalidInputException, DatabaseOperationException {
+
+        if (!isValidId(workoutId)) {
+            throw new InvalidInputException("Invalid workout id");
+        }
+        if (exerciseSummaries == null) {
+            throw new DatabaseOperationException("Exercise summaries not supported by this repository", null);
+        }
+        return exerciseSummaries.getSummary(workoutId);
+    }
+
     // UPDATE
     public void updateWorkout(int id, Workout workout)
             throws InvalidInputException, ResourceNotFoundException, DatabaseOperationException {
 
-        if (id <= 0) {
+        if (!isValidId(id)) {
             throw new InvalidInputException("Invalid workout id");
         }
 
         validateWorkout(workout);
 
-        if (workoutRepository.getById(id) == null) {
-            throw new ResourceNotFoundException("Workout not found");
+        if (workoutLookup.existsByNameExceptId(workout.getName(), id)) {
+            throw new DuplicateResourceException("Workout with name '" + workout.getName() + "' already exists");
         }
 
-        if (workoutLookup.existsByNameExceptId(workout.getName(), id)) {
+        int updated;
+        try {
+            updated = workoutRepository.updateReturningCount(id, workout);
+        } catch (DuplicateKeyException e) {
             throw new DuplicateResourceException("Workout with name '" + workout.getName() + "' already exists");
         }
 
-        workoutRepository.update(id, workout);
+        if (updated == 0) {
+            throw new ResourceNotFoundException("Workout not found");
+        }
     }
 
 
@@ -104,18 +207,21 @@ public class WorkoutService implements IWorkoutService {
     public void deleteWorkout(int id)
             throws InvalidInputException, ResourceNotFoundException, DatabaseOperationException {
 
-        if (id <= 0) {
+        if (!isValidId(id)) {
             throw new InvalidInputException("Invalid workout id");
         }
 
-        if (workoutRepository.getById(id) == null) {
+        if (!workoutRepository.deleteIfExists(id)) {
             throw new ResourceNotFoundException("Workout not found");
         }
+    }
 
-        workoutRepository.delete(id);
+    private boolean isValidId(int id) {
+        return id > 0 || (id < 0 && provisionalIds);
     }
 
-    private void validateWorkout(Workout workout) throws InvalidInputException {
+    // static so BulkImportService applies the same rules
+    static void validateWorkout(Workout workout) throws InvalidInputException {
         if (workout == null) throw new InvalidInputException("Workout cannot be null");
         if (workout.getName() == null || workout.getName().isBlank())
             throw new InvalidInputException("Workout name cannot be empty");
@@ -0,0 +1,55 @@
+package service;
+
+import exception.DatabaseOperationException;
+import exception.InvalidInputException;
+import exception.ResourceNotFoundException;
+import repository.TypeStats;
+import repository.WorkoutStatsQueries;
+import repository.WorkoutVolume;
+
+import java.util.List;
+
+public class WorkoutStatsService implements IWorkoutStatsService {
+
+    private final WorkoutStatsQueries statsQueries;
+
+    public WorkoutStatsService(WorkoutStatsQueries statsQueries) {
+        this.statsQueries = statsQueries;
+    }
+
+    // PER TYPE
+    public List<TypeStats> getStatsByType() throws DatabaseOperationException {
+        return statsQueries.getStatsByType();
+    }
+
+    // TOTAL CALORIES - summed over the per-type rows, still one query
+    public double getTotalCalories() throws DatabaseOperationException {
+        double total = 0;
+        for (TypeStats stats : statsQueries.getStatsByType()) {
+            total += stats.getTotalCalories();
+        }
+        return total;
+    }
+
+    // VOLUME
+    public List<WorkoutVolume> getVolumePerWorkout() throws DatabaseOperationException {
+        return statsQueries.getVolumePerWorkout();
+    }
+
+    // the stats are queried from the database only, so provisional (negative) ids are never valid here
+    public WorkoutVolume getWorkoutVolume(int workoutId)
+            throws InvalidInputException, ResourceNotFoundException, DatabaseOperationException {
+
+        if (workoutId <= 0) {
+            throw new InvalidInputException("Invalid workout id");
+        }
+
+        WorkoutVolume volume = statsQueries.getVolume(workoutId);
+
+        if (volume == null) {
+            throw new ResourceNotFoundException("Workout not found");
+        }
+
+        return volume;
+    }
+}
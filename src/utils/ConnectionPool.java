@@ -0,0 +1,301 @@
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded JDBC connection pool.
+// borrow() hands out a proxy whose close() returns the physical connection to the pool,
+// so repositories keep their try-with-resources blocks unchanged.
+public class ConnectionPool {
+
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private final PoolConfig config;
+    private final ConnectionFactory factory;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong totalBorrows = new AtomicLong();
+    private final AtomicLong totalCreated = new AtomicLong();
+    private final AtomicLong totalDestroyed = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final AtomicLong statementCacheEvictions = new AtomicLong();
+
+    public ConnectionPool(PoolConfig config, ConnectionFactory factory) {
+        if (config.getMinIdle() > config.getMaxSize()) {
+            throw new IllegalArgumentException("minIdle cannot be greater than maxSize");
+        }
+        this.config = config;
+        this.factory = factory;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = config.getHousekeepingIntervalMillis();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // BORROW
+    public Connection borrow() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(config.getBorrowTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                borrowTimeouts.incrementAndGet();
+                throw new SQLTimeoutException("Timed out after " + config.getBorrowTimeoutMillis()
+                        + " ms waiting for a pooled connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        try {
+            PooledConnection pc = takeIdleOrCreate();
+            recordWait(System.nanoTime() - start);
+            pc.borrowedAt = System.currentTimeMillis();
+            pc.borrowSite = config.isCaptureBorrowStack() && config.getLeakThresholdMillis() > 0
+                    ? new Throwable("Connection borrowed here") : null;
+            pc.leakReported = false;
+            active.add(pc);
+            totalBorrows.incrementAndGet();
+            return newHandle(pc);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            if (!needsValidation(pc) || isUsable(pc)) return pc;
+            destroy(pc);
+        }
+        return create();
+    }
+
+    // A connection returned moments ago is almost certainly still alive; skip the isValid() round trip
+    private boolean needsValidation(PooledConnection pc) {
+        return config.isValidateOnBorrow()
+                && System.currentTimeMillis() - pc.lastUsed >= config.getValidationIdleMillis();
+    }
+
+    // RETURN
+    private void release(PooledConnection pc) {
+        active.remove(pc);
+        try {
+            if (closed || total.get() > config.getMaxSize() || pc.physical.isClosed()) {
+                destroy(pc);
+                return;
+            }
+            if (!pc.physical.getAutoCommit()) {
+                pc.physical.rollback();
+                pc.physical.setAutoCommit(true);
+            }
+            pc.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(pc);
+        } catch (SQLException e) {
+            destroy(pc);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public PoolStats getStats() {
+        return new PoolStats(active.size(), idle.size(), waiting.get(), totalBorrows.get(),
+                totalCreated.get(), totalDestroyed.get(), borrowTimeouts.get(), leaksDetected.get(),
+                totalWaitNanos.get(), maxWaitNanos.get(), statementCacheHits.get(),
+                statementCacheMisses.get(), statementCacheEvictions.get());
+    }
+
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            destroy(pc);
+        }
+        // borrowed connections are destroyed when their holders close them
+    }
+
+    // Runs on the housekeeper thread: idle eviction, minIdle top-up, leak detection
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext() && idle.size() > config.getMinIdle()) {
+            PooledConnection pc = oldestFirst.next();
+            if (now - pc.lastUsed > config.getIdleTimeoutMillis() && idle.remove(pc)) {
+                destroy(pc);
+            }
+        }
+
+        try {
+            while (!closed && idle.size() < config.getMinIdle() && total.get() < config.getMaxSize()) {
+                idle.offerLast(create());
+            }
+        } catch (SQLException e) {
+            System.err.println("Connection pool could not refill idle connections: " + e.getMessage());
+        }
+
+        long threshold = config.getLeakThresholdMillis();
+        if (threshold > 0) {
+            for (PooledConnection pc : active) {
+                if (!pc.leakReported && now - pc.borrowedAt > threshold) {
+                    pc.leakReported = true;
+                    leaksDetected.incrementAndGet();
+                    System.err.println("Possible connection leak: connection held for "
+                            + (now - pc.borrowedAt) + " ms");
+                    if (pc.borrowSite != null) pc.borrowSite.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection physical = factory.open();
+        total.incrementAndGet();
+        totalCreated.incrementAndGet();
+        StatementCache cache = config.getStatementCacheSize() > 0
+                ? new StatementCache(config.getStatementCacheSize(),
+                        statementCacheHits, statementCacheMisses, statementCacheEvictions)
+                : null;
+        return new PooledConnection(physical, cache);
+    }
+
+    private void destroy(PooledConnection pc) {
+        total.decrementAndGet();
+        totalDestroyed.incrementAndGet();
+        if (pc.statements != null) pc.statements.closeAll();
+        try {
+            pc.physical.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private boolean isUsable(PooledConnection pc) {
+        try {
+            return pc.physical.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private Connection newHandle(PooledConnection pc) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Handle(pc));
+    }
+
+    // prepareStatement(String) and prepareStatement(String, int autoGeneratedKeys)
+    private static boolean isCacheablePrepare(Method method) {
+        if (!method.getName().equals("prepareStatement")) return false;
+        Class<?>[] params = method.getParameterTypes();
+        return params.length == 1 || (params.length == 2 && params[1] == int.class);
+    }
+
+    private static class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile long borrowedAt;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+        }
+    }
+
+    // One handle per borrow, so closing a stale handle twice cannot return the connection twice
+    private class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) release(pooled);
+                    return null;
+                case "isClosed":
+                    return closed.get() || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+            if (closed.get()) throw new SQLException("Connection is closed");
+            if (pooled.statements != null && isCacheablePrepare(method)) {
+                int keys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                String sql = (String) args[0];
+                return SqlTrace.trace(pooled.statements.prepare(pooled.physical, (Connection) proxy, sql, keys), sql);
+            }
+            try {
+                Object result = method.invoke(pooled.physical, args);
+                if (method.getName().equals("prepareStatement")) {
+                    return SqlTrace.trace((PreparedStatement) result, (String) args[0]);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
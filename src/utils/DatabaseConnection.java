@@ -3,20 +3,134 @@ package utils;
 import java.sql.*;
 
 public class DatabaseConnection {
-    private static final String URL =
-            "jdbc:mysql://localhost:3306/fitness_tracker?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true";
-    private static final String USER = "root";
-    private static final String PASSWORD = "";
+    // set once by configureDatabase() before the pool starts; volatile so the pool's opener sees it
+    private static volatile String url =
+            "jdbc:mysql://localhost:3306/fitness_tracker?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true"
+                    + "&useServerPrepStmts=true&rewriteBatchedStatements=true&useCursorFetch=true";
+    private static volatile String user = "root";
+    private static volatile String password = "";
 
+    private static PoolConfig poolConfig = new PoolConfig();
+    private static volatile ConnectionPool pool;
+    private static final ThreadLocal<Transaction> currentTransaction = new ThreadLocal<>();
+    // time spent waiting for pool connections: overall, and a running total per thread for Instrumentation
+    private static final LatencyHistogram acquireTimes = new LatencyHistogram();
+    private static final ThreadLocal<long[]> threadAcquireNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+    // Borrows from the pool; close() on the returned connection gives it back.
+    // Inside TransactionTemplate.execute the transaction's connection is returned instead.
     public static Connection getConnection() throws SQLException {
+        Transaction tx = currentTransaction.get();
+        if (tx != null) return tx.joinedConnection();
+        long start = System.nanoTime();
         try {
-            return DriverManager.getConnection(URL, USER, PASSWORD);
+            return getPool().borrow();
         } catch (SQLException e) {
                 System.err.println("Database connection failed!");
                 System.err.println("Message: " + e.getMessage());
                 e.printStackTrace();
                 throw e;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                acquireTimes.record(elapsed);
+                threadAcquireNanos.get()[0] += elapsed;
+            }
+    }
+
+    public static LatencyHistogram getAcquireTimes() {
+        return acquireTimes;
+    }
+
+    // Total nanoseconds the calling thread has spent in getConnection() borrowing from the pool
+    public static long getThreadAcquireNanos() {
+        return threadAcquireNanos.get()[0];
+    }
+
+    public static Transaction currentTransaction() {
+        return currentTransaction.get();
+    }
+
+    // Runs the action now, or after the current transaction commits (dropped on rollback)
+    public static void afterCommit(Runnable action) {
+        Transaction tx = currentTransaction.get();
+        if (tx == null) {
+            action.run();
+        } else {
+            tx.afterCommit(action);
+        }
+    }
+
+    static Transaction beginTransaction(int isolation) throws SQLException {
+        Connection conn = getConnection();
+        int previousIsolation = TransactionTemplate.DEFAULT_ISOLATION;
+        try {
+            if (isolation != TransactionTemplate.DEFAULT_ISOLATION) {
+                previousIsolation = conn.getTransactionIsolation();
+                conn.setTransactionIsolation(isolation);
+            }
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            if (previousIsolation != TransactionTemplate.DEFAULT_ISOLATION) {
+                try {
+                    conn.setTransactionIsolation(previousIsolation);
+                } catch (SQLException ignored) {
+                }
+            }
+            conn.close();
+            throw e;
+        }
+        Transaction tx = new Transaction(conn, previousIsolation);
+        currentTransaction.set(tx);
+        return tx;
+    }
+
+    static void endTransaction(Transaction tx) {
+        currentTransaction.remove();
+        tx.release();
+    }
+
+    // Must be called before the first getConnection()
+    public static synchronized void configurePool(PoolConfig config) {
+        if (pool != null) throw new IllegalStateException("Connection pool already started");
+        poolConfig = config;
+    }
+
+    // Points the application at another database (e.g. the H2 instance used by the benchmarks).
+    // Must be called before the first getConnection()
+    public static synchronized void configureDatabase(String url, String user, String password) {
+        if (pool != null) throw new IllegalStateException("Connection pool already started");
+        DatabaseConnection.url = url;
+        DatabaseConnection.user = user;
+        DatabaseConnection.password = password;
+    }
+
+    public static synchronized PoolConfig getPoolConfig() {
+        return poolConfig;
+    }
+
+    public static PoolStats getPoolStats() {
+        ConnectionPool current = pool;
+        return current == null ? new PoolStats(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0) : current.getStats();
+    }
+
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    private static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseConnection.class) {
+                if (pool == null) {
+                    pool = new ConnectionPool(poolConfig, () -> DriverManager.getConnection(url, user, password));
+                }
+                current = pool;
             }
+        }
+        return current;
     }
 
     public static void close(Connection conn, PreparedStatement ps, ResultSet rs) {
@@ -0,0 +1,51 @@
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+// Wraps any interface implementation in a proxy that times each call into a MetricsRegistry
+// under "<prefix>.<method>". Connection-acquire time spent inside the call is measured by
+// DatabaseConnection on the calling thread and reported separately from query time.
+public final class Instrumentation {
+
+    private Instrumentation() {}
+
+    @SuppressWarnings("unchecked")
+    public static <T> T wrap(Class<? super T> type, T target, String prefix, MetricsRegistry registry) {
+        // resolved once per proxy, so a call is a HashMap lookup plus the timing
+        Map<Method, MethodMetrics> byMethod = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            byMethod.put(method, registry.metrics(prefix + "." + method.getName()));
+        }
+
+        InvocationHandler handler = (proxy, method, args) -> {
+            MethodMetrics metrics = byMethod.get(method);
+            if (metrics == null) return invoke(target, method, args); // Object methods
+
+            long acquiredBefore = DatabaseConnection.getThreadAcquireNanos();
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = invoke(target, method, args);
+                failed = false;
+                return result;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                metrics.record(elapsed, DatabaseConnection.getThreadAcquireNanos() - acquiredBefore, failed);
+            }
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package utils;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Counters and latency histograms of one instrumented method.
+// Total time is split into connection-acquire time (waiting on DatabaseConnection.getConnection
+// during the call) and query time (everything else).
+public class MethodMetrics {
+
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final LatencyHistogram acquire = new LatencyHistogram();
+    private final LatencyHistogram query = new LatencyHistogram();
+
+    public MethodMetrics(String name) {
+        this.name = name;
+    }
+
+    public void record(long totalNanos, long acquireNanos, boolean failed) {
+        calls.increment();
+        if (failed) errors.increment();
+        total.record(totalNanos);
+        acquire.record(acquireNanos);
+        query.record(totalNanos - acquireNanos);
+    }
+
+    public String getName() {return name;}
+    public long getCalls() {return calls.sum();}
+    public long getErrors() {return errors.sum();}
+    public LatencyHistogram getTotal() {return total;}
+    public LatencyHistogram getAcquire() {return acquire;}
+    public LatencyHistogram getQuery() {return query;}
+
+    public void reset() {
+        calls.reset();
+        errors.reset();
+        total.reset();
+        acquire.reset();
+        query.reset();
+    }
+}
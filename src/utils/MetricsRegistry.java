@@ -0,0 +1,62 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Named MethodMetrics, filled by Instrumentation proxies and read back programmatically or as a text report
+public class MetricsRegistry {
+
+    private final ConcurrentMap<String, MethodMetrics> metrics = new ConcurrentHashMap<>();
+
+    public MethodMetrics metrics(String name) {
+        return metrics.computeIfAbsent(name, MethodMetrics::new);
+    }
+
+    // Null if nothing was registered under name
+    public MethodMetrics get(String name) {
+        return metrics.get(name);
+    }
+
+    // Sorted by name
+    public List<MethodMetrics> getAll() {
+        List<MethodMetrics> all = new ArrayList<>(metrics.values());
+        all.sort(Comparator.comparing(MethodMetrics::getName));
+        return all;
+    }
+
+    public void reset() {
+        metrics.values().forEach(MethodMetrics::reset);
+        DatabaseConnection.getAcquireTimes().reset();
+    }
+
+    // One line per method that has been called, then the pool-wide acquire times
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-40s %8s %6s %9s %9s %9s %9s %9s %9s%n",
+                "method", "calls", "errors", "p50", "p99", "p99.9", "max", "acq p99", "query p99"));
+        for (MethodMetrics m : getAll()) {
+            if (m.getCalls() == 0) continue;
+            LatencyHistogram total = m.getTotal();
+            sb.append(String.format("%-40s %8d %6d %9s %9s %9s %9s %9s %9s%n",
+                    m.getName(), m.getCalls(), m.getErrors(),
+                    format(total.getPercentile(50)), format(total.getPercentile(99)),
+                    format(total.getPercentile(99.9)), format(total.getMax()),
+                    format(m.getAcquire().getPercentile(99)), format(m.getQuery().getPercentile(99))));
+        }
+        LatencyHistogram acquire = DatabaseConnection.getAcquireTimes();
+        sb.append(String.format("connection acquire: %d borrows, p50 %s, p99 %s, p99.9 %s, max %s%n",
+                acquire.getCount(), format(acquire.getPercentile(50)), format(acquire.getPercentile(99)),
+                format(acquire.getPercentile(99.9)), format(acquire.getMax())));
+        return sb.toString();
+    }
+
+    static String format(long nanos) {
+        if (nanos < 10_000) return nanos + "ns";
+        if (nanos < 10_000_000) return nanos / 1_000 + "us";
+        if (nanos < 10_000_000_000L) return nanos / 1_000_000 + "ms";
+        return nanos / 1_000_000_000 + "s";
+    }
+}
@@ -0,0 +1,82 @@
+package utils;
+
+// Settings for ConnectionPool. Defaults are sized for the console app;
+// change them before the first DatabaseConnection.getConnection() call.
+public class PoolConfig {
+    private int minIdle = 2;
+    private int maxSize = 10;
+    private long idleTimeoutMillis = 5 * 60_000L;
+    private long borrowTimeoutMillis = 5_000L;
+    private long leakThresholdMillis = 30_000L;
+    private boolean captureBorrowStack = false;
+    private long housekeepingIntervalMillis = 30_000L;
+    private boolean validateOnBorrow = true;
+    private long validationIdleMillis = 30_000L;
+    private int validationTimeoutSeconds = 2;
+    private int statementCacheSize = 32;
+
+    public int getMinIdle() {return minIdle;}
+    public void setMinIdle(int minIdle) {
+        if (minIdle < 0) throw new IllegalArgumentException("minIdle must be >= 0");
+        this.minIdle = minIdle;
+    }
+
+    public int getMaxSize() {return maxSize;}
+    public void setMaxSize(int maxSize) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be > 0");
+        this.maxSize = maxSize;
+    }
+
+    public long getIdleTimeoutMillis() {return idleTimeoutMillis;}
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        if (idleTimeoutMillis <= 0) throw new IllegalArgumentException("idleTimeoutMillis must be > 0");
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public long getBorrowTimeoutMillis() {return borrowTimeoutMillis;}
+    public void setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+        if (borrowTimeoutMillis < 0) throw new IllegalArgumentException("borrowTimeoutMillis must be >= 0");
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    // 0 disables leak detection
+    public long getLeakThresholdMillis() {return leakThresholdMillis;}
+    public void setLeakThresholdMillis(long leakThresholdMillis) {
+        if (leakThresholdMillis < 0) throw new IllegalArgumentException("leakThresholdMillis must be >= 0");
+        this.leakThresholdMillis = leakThresholdMillis;
+    }
+
+    // Off by default: filling a stack trace on every borrow is too expensive for the hot path.
+    // Turn it on while hunting a leak so the report shows where the connection was borrowed.
+    public boolean isCaptureBorrowStack() {return captureBorrowStack;}
+    public void setCaptureBorrowStack(boolean captureBorrowStack) {this.captureBorrowStack = captureBorrowStack;}
+
+    public long getHousekeepingIntervalMillis() {return housekeepingIntervalMillis;}
+    public void setHousekeepingIntervalMillis(long housekeepingIntervalMillis) {
+        if (housekeepingIntervalMillis <= 0) throw new IllegalArgumentException("housekeepingIntervalMillis must be > 0");
+        this.housekeepingIntervalMillis = housekeepingIntervalMillis;
+    }
+
+    public boolean isValidateOnBorrow() {return validateOnBorrow;}
+    public void setValidateOnBorrow(boolean validateOnBorrow) {this.validateOnBorrow = validateOnBorrow;}
+
+    // Only connections idle for longer than this are checked with isValid() on borrow; 0 checks every borrow
+    public long getValidationIdleMillis() {return validationIdleMillis;}
+    public void setValidationIdleMillis(long validationIdleMillis) {
+        if (validationIdleMillis < 0) throw new IllegalArgumentException("validationIdleMillis must be >= 0");
+        this.validationIdleMillis = validationIdleMillis;
+    }
+
+    public int getValidationTimeoutSeconds() {return validationTimeoutSeconds;}
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        if (validationTimeoutSeconds < 0) throw new IllegalArgumentException("validationTimeoutSeconds must be >= 0");
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    // Prepared statements kept per connection (LRU); 0 disables the cache
+    public int getStatementCacheSize() {return statementCacheSize;}
+    public void setStatementCacheSize(int statementCacheSize) {
+        if (statementCacheSize < 0) throw new IllegalArgumentException("statementCacheSize must be >= 0");
+        this.statementCacheSize = statementCacheSize;
+    }
+}
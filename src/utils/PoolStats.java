@@ -0,0 +1,73 @@
+package utils;
+
+// Point-in-time snapshot of ConnectionPool counters
+public class PoolStats {
+    private final int active;
+    private final int idle;
+    private final int waiting;
+    private final long totalBorrows;
+    private final long totalCreated;
+    private final long totalDestroyed;
+    private final long borrowTimeouts;
+    private final long leaksDetected;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final long statementCacheEvictions;
+
+    public PoolStats(int active, int idle, int waiting, long totalBorrows, long totalCreated,
+                     long totalDestroyed, long borrowTimeouts, long leaksDetected,
+                     long totalWaitNanos, long maxWaitNanos, long statementCacheHits,
+                     long statementCacheMisses, long statementCacheEvictions) {
+        this.active = active;
+        this.idle = idle;
+        this.waiting = waiting;
+        this.totalBorrows = totalBorrows;
+        this.totalCreated = totalCreated;
+        this.totalDestroyed = totalDestroyed;
+        this.borrowTimeouts = borrowTimeouts;
+        this.leaksDetected = leaksDetected;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+        this.statementCacheEvictions = statementCacheEvictions;
+    }
+
+    public int getActive() {return active;}
+    public int getIdle() {return idle;}
+    public int getWaiting() {return waiting;}
+    public long getTotalBorrows() {return totalBorrows;}
+    public long getTotalCreated() {return totalCreated;}
+    public long getTotalDestroyed() {return totalDestroyed;}
+    public long getBorrowTimeouts() {return borrowTimeouts;}
+    public long getLeaksDetected() {return leaksDetected;}
+    public long getTotalWaitNanos() {return totalWaitNanos;}
+    public long getMaxWaitNanos() {return maxWaitNanos;}
+    public long getStatementCacheHits() {return statementCacheHits;}
+    public long getStatementCacheMisses() {return statementCacheMisses;}
+    public long getStatementCacheEvictions() {return statementCacheEvictions;}
+
+    public double getStatementCacheHitRate() {
+        long lookups = statementCacheHits + statementCacheMisses;
+        return lookups == 0 ? 0 : (double) statementCacheHits / lookups;
+    }
+
+    public double getAverageWaitMillis() {
+        return totalBorrows == 0 ? 0 : totalWaitNanos / 1_000_000.0 / totalBorrows;
+    }
+
+    @Override
+    public String toString() {
+        return "active=" + active + " | idle=" + idle + " | waiting=" + waiting
+                + " | borrows=" + totalBorrows + " | created=" + totalCreated
+                + " | destroyed=" + totalDestroyed + " | timeouts=" + borrowTimeouts
+                + " | leaks=" + leaksDetected
+                + " | avgWait=" + String.format("%.3f", getAverageWaitMillis()) + " ms"
+                + " | maxWait=" + String.format("%.3f", maxWaitNanos / 1_000_000.0) + " ms"
+                + " | stmtCache hits=" + statementCacheHits + " misses=" + statementCacheMisses
+                + " evictions=" + statementCacheEvictions
+                + " hitRate=" + String.format("%.1f", getStatementCacheHitRate() * 100) + "%";
+    }
+}
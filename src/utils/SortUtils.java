@@ -1,16 +1,94 @@
 package utils;
 
 import model.Workout;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.PriorityQueue;
 
 public class SortUtils {
 
+    private static final Comparator<Workout> BY_DURATION = Comparator.comparingInt(Workout::getDuration);
+
     public static void sortWorkoutsByDuration(List<Workout> workouts) {
-        workouts.sort(Comparator.comparingInt(Workout::getDuration));
+        workouts.sort(BY_DURATION);
     }
 
+    // Same order as compareToIgnoreCase, but each name is case-folded once instead of on every comparison
     public static void sortWorkoutsByName(List<Workout> workouts) {
-        workouts.sort((a, b) -> a.getName().compareToIgnoreCase(b.getName()));
+        Keyed<String>[] keyed = keyed(workouts.size());
+        int i = 0;
+        for (Workout w : workouts) {
+            keyed[i++] = new Keyed<>(foldCase(w.getName()), w);
+        }
+        Arrays.sort(keyed, (a, b) -> a.key.compareTo(b.key));
+        writeBack(workouts, keyed);
+    }
+
+    // Locale-aware order; collation keys are computed once per name
+    public static void sortWorkoutsByName(List<Workout> workouts, Collator collator) {
+        Keyed<CollationKey>[] keyed = keyed(workouts.size());
+        int i = 0;
+        for (Workout w : workouts) {
+            keyed[i++] = new Keyed<>(collator.getCollationKey(w.getName()), w);
+        }
+        Arrays.sort(keyed, (a, b) -> a.key.compareTo(b.key));
+        writeBack(workouts, keyed);
+    }
+
+    // k shortest workouts, shortest first, in O(n log k) without sorting the whole list
+    public static List<Workout> topKByDuration(List<Workout> workouts, int k) {
+        if (k <= 0) return new ArrayList<>();
+
+        PriorityQueue<Workout> longestOnTop = new PriorityQueue<>(k + 1, BY_DURATION.reversed());
+        for (Workout w : workouts) {
+            if (longestOnTop.size() < k) {
+                longestOnTop.add(w);
+            } else if (w.getDuration() < longestOnTop.peek().getDuration()) {
+                longestOnTop.poll();
+                longestOnTop.add(w);
+            }
+        }
+
+        List<Workout> result = new ArrayList<>(longestOnTop);
+        result.sort(BY_DURATION);
+        return result;
+    }
+
+    // Per-char fold matching String.compareToIgnoreCase
+    private static String foldCase(String s) {
+        char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <K> Keyed<K>[] keyed(int size) {
+        return (Keyed<K>[]) new Keyed[size];
+    }
+
+    private static void writeBack(List<Workout> workouts, Keyed<?>[] keyed) {
+        ListIterator<Workout> it = workouts.listIterator();
+        for (Keyed<?> k : keyed) {
+            it.next();
+            it.set(k.workout);
+        }
+    }
+
+    private static class Keyed<K> {
+        private final K key;
+        private final Workout workout;
+
+        private Keyed(K key, Workout workout) {
+            this.key = key;
+            this.workout = workout;
+        }
     }
 }
@@ -0,0 +1,55 @@
+package utils;
+
+import java.util.Arrays;
+
+// Small ascending set of ints backed by a growable int[]; meant for short per-key id lists
+// (e.g. the exercise ids of one workout), where binary search beats hashing. Not thread-safe.
+public class SortedIntSet {
+
+    private int[] elements;
+    private int size;
+
+    public SortedIntSet() {
+        this.elements = new int[4];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return elements[index];
+    }
+
+    public boolean contains(int value) {
+        return Arrays.binarySearch(elements, 0, size, value) >= 0;
+    }
+
+    public boolean add(int value) {
+        int index = Arrays.binarySearch(elements, 0, size, value);
+        if (index >= 0) return false;
+        int insertAt = -index - 1;
+        if (size == elements.length) elements = Arrays.copyOf(elements, size << 1);
+        System.arraycopy(elements, insertAt, elements, insertAt + 1, size - insertAt);
+        elements[insertAt] = value;
+        size++;
+        return true;
+    }
+
+    public boolean remove(int value) {
+        int index = Arrays.binarySearch(elements, 0, size, value);
+        if (index < 0) return false;
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+}
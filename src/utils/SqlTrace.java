@@ -0,0 +1,92 @@
+package utils;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Opt-in SQL tracing / slow-query log for statements prepared on pooled connections.
+// When enabled, each PreparedStatement records its bound parameters, elapsed time (execute
+// until the ResultSet or statement is closed, so row fetching is included) and row count;
+// executions at or over the threshold go to a fixed-size ring buffer that overwrites the
+// oldest entry, so recording never blocks or allocates beyond the record itself.
+// When disabled, the only cost is one volatile read per prepareStatement.
+public final class SqlTrace {
+
+    private static volatile Ring ring;
+
+    private SqlTrace() {}
+
+    // thresholdMillis 0 traces every statement
+    public static void enable(long thresholdMillis, int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        ring = new Ring(thresholdMillis * 1_000_000, capacity);
+    }
+
+    public static void disable() {
+        ring = null;
+    }
+
+    public static boolean isEnabled() {
+        return ring != null;
+    }
+
+    // Oldest first; empty when tracing is disabled
+    public static List<SqlTraceRecord> getRecent() {
+        Ring current = ring;
+        return current == null ? new ArrayList<>() : current.snapshot();
+    }
+
+    // Executions recorded since enable(), including those already overwritten
+    public static long getRecordedCount() {
+        Ring current = ring;
+        return current == null ? 0 : current.next.get();
+    }
+
+    public static String report() {
+        Ring current = ring;
+        if (current == null) return "SQL tracing is off (run with -Dfitness.sqlTrace=<threshold ms>)\n";
+        StringBuilder sb = new StringBuilder();
+        sb.append("Statements over ").append(current.thresholdNanos / 1_000_000).append(" ms: ")
+                .append(current.next.get()).append(" recorded, last ").append(current.slots.length()).append(" kept\n");
+        for (SqlTraceRecord record : current.snapshot()) {
+            sb.append(record).append('\n');
+        }
+        return sb.toString();
+    }
+
+    // Called by ConnectionPool for every statement it hands out
+    static PreparedStatement trace(PreparedStatement statement, String sql) {
+        Ring current = ring;
+        return current == null ? statement : TracedStatement.wrap(statement, sql, current);
+    }
+
+    static final class Ring {
+        final long thresholdNanos;
+        final AtomicReferenceArray<SqlTraceRecord> slots;
+        final AtomicLong next = new AtomicLong();
+
+        private Ring(long thresholdNanos, int capacity) {
+            this.thresholdNanos = thresholdNanos;
+            this.slots = new AtomicReferenceArray<>(capacity);
+        }
+
+        void add(SqlTraceRecord record) {
+            long seq = next.getAndIncrement();
+            slots.set((int) (seq % slots.length()), record);
+        }
+
+        // Best effort under concurrent writes: a slot may already hold a newer record
+        List<SqlTraceRecord> snapshot() {
+            long end = next.get();
+            long start = Math.max(0, end - slots.length());
+            List<SqlTraceRecord> records = new ArrayList<>();
+            for (long seq = start; seq < end; seq++) {
+                SqlTraceRecord record = slots.get((int) (seq % slots.length()));
+                if (record != null) records.add(record);
+            }
+            return records;
+        }
+    }
+}
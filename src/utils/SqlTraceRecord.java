@@ -0,0 +1,38 @@
+package utils;
+
+import java.util.List;
+
+// One traced statement execution as kept by SqlTrace
+public class SqlTraceRecord {
+    private final long timestamp;
+    private final String thread;
+    private final String sql;
+    private final List<Object> parameters;
+    private final long rows;
+    private final long elapsedNanos;
+
+    public SqlTraceRecord(long timestamp, String thread, String sql, List<Object> parameters,
+                          long rows, long elapsedNanos) {
+        this.timestamp = timestamp;
+        this.thread = thread;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.rows = rows;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // Epoch millis when the statement finished
+    public long getTimestamp() {return timestamp;}
+    public String getThread() {return thread;}
+    public String getSql() {return sql;}
+    // Bound parameters by position (index 0 is parameter 1); the last batch entry for executeBatch
+    public List<Object> getParameters() {return parameters;}
+    // Rows read for a query, rows affected for an update
+    public long getRows() {return rows;}
+    public long getElapsedNanos() {return elapsedNanos;}
+
+    @Override
+    public String toString() {
+        return String.format("%8.3f ms  %6d rows  %s  %s", elapsedNanos / 1_000_000.0, rows, sql, parameters);
+    }
+}
@@ -0,0 +1,219 @@
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+// LRU cache of prepared statements for one physical connection.
+// Handed-out statements are proxies: close() clears parameters and any pending batch, puts back
+// fetch size / max rows / query timeout if the holder changed them, and returns the statement to
+// the cache, so the repositories' try-with-resources blocks stay as they are. A statement that
+// cannot be reset is closed and dropped from the cache.
+class StatementCache {
+
+    private final int capacity;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    StatementCache(int capacity, AtomicLong hits, AtomicLong misses, AtomicLong evictions) {
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= StatementCache.this.capacity) return false;
+                StatementCache.this.evictions.incrementAndGet();
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    synchronized PreparedStatement prepare(Connection physical, Connection handle, String sql, int autoGeneratedKeys)
+            throws SQLException {
+        String key = autoGeneratedKeys + ":" + sql;
+        CachedStatement cached = statements.get(key);
+
+        if (cached != null && cached.evicted) {
+            // closed by checkin() after a failed reset
+            statements.remove(key);
+            evictions.incrementAndGet();
+            cached = null;
+        }
+        if (cached != null && !cached.inUse) {
+            hits.incrementAndGet();
+            return cached.checkout(handle);
+        }
+
+        misses.incrementAndGet();
+        PreparedStatement ps = autoGeneratedKeys == Statement.NO_GENERATED_KEYS
+                ? physical.prepareStatement(sql)
+                : physical.prepareStatement(sql, autoGeneratedKeys);
+
+        // Same SQL already checked out on this connection (nested use): hand out an uncached statement
+        if (cached != null) return ps;
+
+        CachedStatement created;
+        try {
+            created = new CachedStatement(ps);
+        } catch (SQLException e) {
+            ps.close();
+            throw e;
+        }
+        statements.put(key, created);
+        return created.checkout(handle);
+    }
+
+    synchronized void closeAll() {
+        for (CachedStatement cached : statements.values()) {
+            cached.evict();
+        }
+        statements.clear();
+    }
+
+    private static class CachedStatement {
+        // Statement setters that outlive one borrower
+        private static final Set<String> SETTINGS = Set.of("setFetchSize", "setFetchDirection",
+                "setMaxRows", "setLargeMaxRows", "setMaxFieldSize", "setQueryTimeout");
+
+        private final PreparedStatement physical;
+        private final int defaultFetchSize;
+        private final int defaultFetchDirection;
+        private final int defaultMaxRows;
+        private final int defaultMaxFieldSize;
+        private final int defaultQueryTimeout;
+        private boolean inUse;
+        private volatile boolean evicted;
+        private boolean batchPending;
+        private boolean settingsChanged;
+
+        private CachedStatement(PreparedStatement physical) throws SQLException {
+            this.physical = physical;
+            this.defaultFetchSize = physical.getFetchSize();
+            this.defaultFetchDirection = physical.getFetchDirection();
+            this.defaultMaxRows = physical.getMaxRows();
+            this.defaultMaxFieldSize = physical.getMaxFieldSize();
+            this.defaultQueryTimeout = physical.getQueryTimeout();
+        }
+
+        private PreparedStatement checkout(Connection handle) {
+            inUse = true;
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new Handle(this, handle));
+        }
+
+        private synchronized void checkin() throws SQLException {
+            inUse = false;
+            if (!evicted) {
+                try {
+                    reset();
+                    return;
+                } catch (SQLException e) {
+                    // next prepare() drops it from the cache
+                    evicted = true;
+                }
+            }
+            physical.close();
+        }
+
+        private void reset() throws SQLException {
+            physical.clearParameters();
+            if (batchPending) {
+                // rows added by a holder that never executed them must not reach the next executeBatch()
+                physical.clearBatch();
+                batchPending = false;
+            }
+            if (settingsChanged) {
+                // max rows first: some drivers reject a fetch size above the current max rows
+                physical.setMaxRows(defaultMaxRows);
+                physical.setFetchSize(defaultFetchSize);
+                physical.setFetchDirection(defaultFetchDirection);
+                physical.setMaxFieldSize(defaultMaxFieldSize);
+                physical.setQueryTimeout(defaultQueryTimeout);
+                settingsChanged = false;
+            }
+        }
+
+        private synchronized void track(String methodName) {
+            if (methodName.equals("addBatch")) batchPending = true;
+            else if (SETTINGS.contains(methodName)) settingsChanged = true;
+        }
+
+        // Closes now if idle, otherwise when the current holder closes it
+        private synchronized void evict() {
+            evicted = true;
+            if (!inUse) {
+                try {
+                    physical.close();
+                } catch (SQLException ignored) {
+                }
+            }
+        }
+    }
+
+    private static class Handle implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection connection;
+        private final List<ResultSet> openResults = new ArrayList<>(1);
+        private boolean closed;
+
+        private Handle(CachedStatement cached, Connection connection) {
+            this.cached = cached;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        for (ResultSet rs : openResults) {
+                            try { rs.close(); } catch (SQLException ignored) {}
+                        }
+                        cached.checkin();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return connection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached[" + cached.physical + "]";
+                default:
+                    break;
+            }
+            if (closed) throw new SQLException("Statement is closed");
+            cached.track(method.getName());
+            try {
+                Object result = method.invoke(cached.physical, args);
+                if (result instanceof ResultSet) openResults.add((ResultSet) result);
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// PreparedStatement proxy used by SqlTrace. A query's record is finished when its ResultSet
+// is closed, the statement is closed or the statement is executed again.
+class TracedStatement implements InvocationHandler {
+
+    private final PreparedStatement statement;
+    private final String sql;
+    private final SqlTrace.Ring ring;
+
+    private final List<Object> parameters = new ArrayList<>();
+    private List<Object> lastBatch;
+    // open query, if any
+    private long queryStart;
+    private long queryRows;
+    private boolean queryOpen;
+
+    private TracedStatement(PreparedStatement statement, String sql, SqlTrace.Ring ring) {
+        this.statement = statement;
+        this.sql = sql;
+        this.ring = ring;
+    }
+
+    static PreparedStatement wrap(PreparedStatement statement, String sql, SqlTrace.Ring ring) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new TracedStatement(statement, sql, ring));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+            bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+        } else {
+            switch (name) {
+                case "clearParameters" -> parameters.clear();
+                case "addBatch" -> lastBatch = new ArrayList<>(parameters);
+                case "executeQuery" -> {
+                    finishQuery();
+                    queryStart = System.nanoTime();
+                    queryRows = 0;
+                    queryOpen = true;
+                    ResultSet rs = (ResultSet) call(method, args);
+                    return rs == null ? null : countRows(rs);
+                }
+                case "executeUpdate", "executeLargeUpdate", "execute", "executeBatch", "executeLargeBatch" -> {
+                    finishQuery();
+                    long start = System.nanoTime();
+                    Object result = call(method, args);
+                    record(System.nanoTime() - start, affectedRows(result), name.contains("Batch"));
+                    return result;
+                }
+                case "close" -> finishQuery();
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+        }
+        return call(method, args);
+    }
+
+    private void bind(int index, Object value) {
+        while (parameters.size() < index) {
+            parameters.add(null);
+        }
+        parameters.set(index - 1, value);
+    }
+
+    private Object call(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(statement, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private ResultSet countRows(ResultSet rs) {
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("close")) finishQuery();
+                    Object result = call(rs, method, args);
+                    if (name.equals("next") && Boolean.TRUE.equals(result)) queryRows++;
+                    return result;
+                });
+    }
+
+    private static Object call(ResultSet rs, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(rs, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void finishQuery() {
+        if (!queryOpen) return;
+        queryOpen = false;
+        record(System.nanoTime() - queryStart, queryRows, false);
+    }
+
+    private void record(long elapsedNanos, long rows, boolean batch) {
+        List<Object> batchParameters = lastBatch;
+        if (batch) lastBatch = null;
+        if (elapsedNanos < ring.thresholdNanos) return;
+        List<Object> bound = batchParameters != null && batch ? batchParameters : new ArrayList<>(parameters);
+        ring.add(new SqlTraceRecord(System.currentTimeMillis(), Thread.currentThread().getName(), sql,
+                bound, rows, elapsedNanos));
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Integer) return (Integer) result;
+        if (result instanceof Long) return (Long) result;
+        if (result instanceof int[]) return Arrays.stream((int[]) result).filter(n -> n > 0).sum();
+        if (result instanceof long[]) return Arrays.stream((long[]) result).filter(n -> n > 0).sum();
+        return -1;
+    }
+}
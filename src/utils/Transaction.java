@@ -0,0 +1,84 @@
+package utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// One database transaction bound to the current thread by TransactionTemplate.
+// While it is active, DatabaseConnection.getConnection() returns its connection
+// (close() does nothing), so every repository call joins it.
+public class Transaction {
+
+    private final Connection connection;
+    // level to put back on the pooled connection, or TransactionTemplate.DEFAULT_ISOLATION
+    private final int restoreIsolation;
+    private final Connection joinedView;
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    private boolean rollbackOnly;
+
+    Transaction(Connection connection, int restoreIsolation) {
+        this.connection = connection;
+        this.restoreIsolation = restoreIsolation;
+        this.joinedView = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) return null;
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    // Runs the action only if the transaction commits (e.g. updating in-memory indexes)
+    public void afterCommit(Runnable action) {
+        afterCommit.add(action);
+    }
+
+    // The transaction will roll back instead of committing when the block ends
+    public void setRollbackOnly() {
+        rollbackOnly = true;
+    }
+
+    public boolean isRollbackOnly() {
+        return rollbackOnly;
+    }
+
+    Connection joinedConnection() {
+        return joinedView;
+    }
+
+    void commit() throws SQLException {
+        connection.commit();
+        for (Runnable action : afterCommit) {
+            action.run();
+        }
+    }
+
+    void rollback() throws SQLException {
+        connection.rollback();
+    }
+
+    // Returns the connection to the pool
+    void release() {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException ignored) {
+        }
+        if (restoreIsolation != TransactionTemplate.DEFAULT_ISOLATION) {
+            try {
+                connection.setTransactionIsolation(restoreIsolation);
+            } catch (SQLException ignored) {
+            }
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
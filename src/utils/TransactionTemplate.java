@@ -0,0 +1,86 @@
+package utils;
+
+import exception.DatabaseOperationException;
+
+import java.sql.SQLException;
+
+// Runs a block of repository calls in one transaction on one connection, committed once:
+//
+//   transactions.execute(tx -> {
+//       workoutRepository.create(workout);
+//       exerciseRepository.createAll(workout.getId(), exercises);
+//       return workout;
+//   });
+//
+// Any exception rolls the transaction back and is rethrown unchanged.
+// A nested execute() joins the transaction that is already running on the thread, keeping its
+// isolation level.
+public class TransactionTemplate {
+
+    // leave the connection's isolation level as the driver has it
+    public static final int DEFAULT_ISOLATION = -1;
+
+    private final int isolation;
+
+    public TransactionTemplate() {
+        this(DEFAULT_ISOLATION);
+    }
+
+    // isolation is a java.sql.Connection TRANSACTION_* level, set for the transaction and restored after it
+    public TransactionTemplate(int isolation) {
+        this.isolation = isolation;
+    }
+
+    @FunctionalInterface
+    public interface TransactionCallback<T, E extends Exception> {
+        T doInTransaction(Transaction tx) throws E;
+    }
+
+    public <T, E extends Exception> T execute(TransactionCallback<T, E> callback)
+            throws E, DatabaseOperationException {
+
+        Transaction existing = DatabaseConnection.currentTransaction();
+        if (existing != null) {
+            return callback.doInTransaction(existing);
+        }
+
+        Transaction tx;
+        try {
+            tx = DatabaseConnection.beginTransaction(isolation);
+        } catch (SQLException e) {
+            throw new DatabaseOperationException("Failed to start transaction", e);
+        }
+
+        try {
+            T result;
+            try {
+                result = callback.doInTransaction(tx);
+            } catch (Throwable t) {
+                rollbackQuietly(tx);
+                throw t;
+            }
+
+            try {
+                if (tx.isRollbackOnly()) {
+                    tx.rollback();
+                } else {
+                    tx.commit();
+                }
+            } catch (SQLException e) {
+                rollbackQuietly(tx);
+                throw new DatabaseOperationException("Failed to commit transaction", e);
+            }
+            return result;
+        } finally {
+            DatabaseConnection.endTransaction(tx);
+        }
+    }
+
+    private static void rollbackQuietly(Transaction tx) {
+        try {
+            tx.rollback();
+        } catch (SQLException e) {
+            System.err.println("Transaction rollback failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package repository;
+
+class InMemoryRepositoryContractTest extends RepositoryContract<InMemoryWorkoutRepository, InMemoryExerciseRepository> {
+
+    @Override
+    protected void openEmptyRepositories() {
+        InMemoryDatabase db = new InMemoryDatabase();
+        workouts = new InMemoryWorkoutRepository(db);
+        exercises = new InMemoryExerciseRepository(db);
+    }
+}
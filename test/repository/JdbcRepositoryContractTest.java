@@ -0,0 +1,61 @@
+package repository;
+
+import utils.DatabaseConnection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// The JDBC repositories against embedded H2 in MySQL mode, with the tables from schema.sql.
+// IGNORECASE=TRUE stands in for MySQL's case-insensitive default collation.
+class JdbcRepositoryContractTest extends RepositoryContract<WorkoutRepository, ExerciseRepository> {
+
+    private static final String URL =
+            "jdbc:h2:mem:repository_contract;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String USER = "sa";
+    private static final String PASSWORD = "";
+
+    private static boolean configured;
+
+    @Override
+    protected void openEmptyRepositories() throws SQLException, IOException {
+        synchronized (JdbcRepositoryContractTest.class) {
+            if (!configured) {
+                DatabaseConnection.configureDatabase(URL, USER, PASSWORD);
+                configured = true;
+            }
+        }
+        // fresh tables (and id sequences) per test; pooled connections keep working across the drop
+        try (Connection conn = DriverManager.getConnection(URL, USER, PASSWORD);
+             Statement st = conn.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+            for (String sql : schemaTables()) {
+                st.execute(sql);
+            }
+        }
+        workouts = new WorkoutRepository();
+        exercises = new ExerciseRepository();
+    }
+
+    // CREATE TABLE statements of schema.sql; the sample rows are left out so every test starts empty
+    private static List<String> schemaTables() throws IOException {
+        String script;
+        try (InputStream in = JdbcRepositoryContractTest.class.getClassLoader().getResourceAsStream("schema.sql")) {
+            if (in == null) throw new IOException("schema.sql not found on classpath");
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> statements = new ArrayList<>();
+        for (String sql : script.split(";")) {
+            String trimmed = sql.strip();
+            if (trimmed.toUpperCase(Locale.ROOT).startsWith("CREATE TABLE")) statements.add(trimmed);
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,305 @@
+package repository;
+
+import exception.DatabaseOperationException;
+import exception.DuplicateKeyException;
+import exception.ForeignKeyViolationException;
+import model.CardioWorkout;
+import model.Exercise;
+import model.StrengthWorkout;
+import model.Workout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Behaviour every workout/exercise repository pair must share, whatever stores the rows:
+// generated ids, case-insensitive unique names, ON DELETE CASCADE, result ordering, keyset
+// paging and shortest-by-type. Subclasses supply empty repositories for each test.
+abstract class RepositoryContract<W extends CrudRepository<Workout> & WorkoutQueries & WorkoutLookup,
+        E extends CrudRepository<Exercise> & ExerciseQueries & ExerciseBatchWriter> {
+
+    protected W workouts;
+    protected E exercises;
+
+    // Both repositories must start empty and share one store (FK checks and cascades)
+    protected abstract void openEmptyRepositories() throws Exception;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        openEmptyRepositories();
+    }
+
+    // GENERATED IDS
+    @Test
+    void createAssignsIncreasingIds() throws DatabaseOperationException {
+        Workout first = cardio("Morning Run", 30);
+        Workout second = strength("Upper Body", 45);
+
+        assertTrue(first.getId() > 0);
+        assertTrue(second.getId() > first.getId());
+
+        Exercise a = exercise(second, "Bench Press", 3, 10);
+        Exercise b = exercise(second, "Bicep Curls", 3, 12);
+        assertTrue(a.getId() > 0);
+        assertTrue(b.getId() > a.getId());
+    }
+
+    @Test
+    void createAllAssignsIdsInListOrder() throws DatabaseOperationException {
+        Workout workout = strength("Legs", 40);
+        List<Exercise> batch = List.of(new Exercise(workout.getId(), "Squat", 5, 5),
+                new Exercise(workout.getId(), "Lunge", 3, 12), new Exercise(workout.getId(), "Calf Raise", 4, 15));
+
+        exercises.createAll(workout.getId(), batch);
+
+        for (int i = 1; i < batch.size(); i++) {
+            assertTrue(batch.get(i).getId() > batch.get(i - 1).getId());
+        }
+        assertEquals(ids(batch), ids(exercises.getByWorkoutId(workout.getId())));
+    }
+
+    @Test
+    void getByIdReadsBackWhatWasCreated() throws DatabaseOperationException {
+        Workout created = strength("Push Day", 50);
+        Exercise exercise = exercise(created, "Dips", 3, 8);
+
+        Workout read = workouts.getById(created.getId());
+        assertEquals("Push Day", read.getName());
+        assertEquals("STRENGTH", read.getWorkoutType());
+        assertEquals(50, read.getDuration());
+
+        Exercise readExercise = exercises.getById(exercise.getId());
+        assertEquals(created.getId(), readExercise.getWorkoutId());
+        assertEquals("Dips", readExercise.getName());
+        assertEquals(3, readExercise.getSets());
+        assertEquals(8, readExercise.getReps());
+
+        assertNull(workouts.getById(created.getId() + 1000));
+        assertNull(exercises.getById(exercise.getId() + 1000));
+    }
+
+    // UNIQUE NAMES
+    @Test
+    void duplicateNameIsRejectedIgnoringCase() throws DatabaseOperationException {
+        Workout original = cardio("Leg Day", 30);
+
+        assertThrows(DuplicateKeyException.class, () -> workouts.create(new CardioWorkout("LEG DAY", 20)));
+        assertTrue(workouts.existsByName("leg day"));
+        assertFalse(workouts.existsByNameExceptId("leg day", original.getId()));
+        assertEquals(1, workouts.getAll().size());
+    }
+
+    @Test
+    void renameOntoAnotherNameIsRejected() throws DatabaseOperationException {
+        cardio("Sprints", 20);
+        Workout other = cardio("Intervals", 25);
+
+        assertThrows(DuplicateKeyException.class,
+                () -> workouts.updateReturningCount(other.getId(), new CardioWorkout("sprints", 25)));
+        assertEquals("Intervals", workouts.getById(other.getId()).getName());
+
+        // a case-only rename of the same row is not a duplicate
+        assertEquals(1, workouts.updateReturningCount(other.getId(), new CardioWorkout("INTERVALS", 30)));
+        assertEquals("INTERVALS", workouts.getById(other.getId()).getName());
+        assertEquals(30, workouts.getById(other.getId()).getDuration());
+    }
+
+    @Test
+    void freedNameCanBeReused() throws DatabaseOperationException {
+        Workout workout = cardio("Swim", 40);
+        assertTrue(workouts.deleteIfExists(workout.getId()));
+
+        Workout again = cardio("SWIM", 45);
+        assertTrue(again.getId() > workout.getId());
+    }
+
+    // FOREIGN KEY AND CASCADE
+    @Test
+    void exerciseForMissingWorkoutIsRejected() {
+        assertThrows(ForeignKeyViolationException.class, () -> exercises.create(new Exercise(999_999, "Plank", 3, 1)));
+    }
+
+    @Test
+    void deletingWorkoutCascadesToItsExercises() throws DatabaseOperationException {
+        Workout doomed = strength("Doomed", 30);
+        Workout kept = strength("Kept", 30);
+        Exercise gone = exercise(doomed, "Row", 3, 10);
+        exercise(doomed, "Pull Up", 3, 8);
+        Exercise stays = exercise(kept, "Press", 3, 10);
+
+        assertTrue(workouts.deleteIfExists(doomed.getId()));
+
+        assertNull(workouts.getById(doomed.getId()));
+        assertNull(exercises.getById(gone.getId()));
+        assertTrue(exercises.getByWorkoutId(doomed.getId()).isEmpty());
+        assertEquals(List.of(stays.getId()), ids(exercises.getAll()));
+    }
+
+    @Test
+    void updateAndDeleteReportMissingRows() throws DatabaseOperationException {
+        Workout workout = cardio("Bike", 60);
+        Exercise exercise = exercise(workout, "Hill", 1, 1);
+        int missing = exercise.getId() + workout.getId() + 1000;
+
+        assertEquals(0, workouts.updateReturningCount(missing, new CardioWorkout("Ghost", 10)));
+        assertEquals(0, exercises.updateReturningCount(missing, new Exercise(workout.getId(), "Ghost", 1, 1)));
+        assertFalse(workouts.deleteIfExists(missing));
+        assertFalse(exercises.deleteIfExists(missing));
+
+        assertEquals(1, exercises.updateReturningCount(exercise.getId(), new Exercise(workout.getId(), "Hills", 5, 2)));
+        Exercise updated = exercises.getById(exercise.getId());
+        assertEquals("Hills", updated.getName());
+        assertEquals(5, updated.getSets());
+        assertEquals(2, updated.getReps());
+        assertTrue(exercises.deleteIfExists(exercise.getId()));
+        assertFalse(exercises.deleteIfExists(exercise.getId()));
+    }
+
+    // ORDERING
+    @Test
+    void listsAreOrderedById() throws DatabaseOperationException {
+        Workout b = cardio("B", 10);
+        Workout a = cardio("A", 5);
+        Workout c = strength("C", 20);
+        Exercise c1 = exercise(c, "Z last by name", 1, 1);
+        Exercise a1 = exercise(a, "Y", 1, 1);
+        Exercise c2 = exercise(c, "A first by name", 1, 1);
+
+        assertEquals(List.of(b.getId(), a.getId(), c.getId()), ids(workouts.getAll()));
+        assertEquals(List.of(c1.getId(), a1.getId(), c2.getId()), ids(exercises.getAll()));
+        assertEquals(List.of(c1.getId(), c2.getId()), ids(exercises.getByWorkoutId(c.getId())));
+        try (Stream<Workout> stream = workouts.streamAll()) {
+            assertEquals(ids(workouts.getAll()), stream.map(Workout::getId).collect(Collectors.toList()));
+        }
+        try (Stream<Exercise> stream = exercises.streamAll()) {
+            assertEquals(ids(exercises.getAll()), stream.map(Exercise::getId).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void workoutsWithExercisesAreGroupedInIdOrder() throws DatabaseOperationException {
+        Workout first = strength("First", 30);
+        Workout empty = cardio("Empty", 15);
+        Workout last = strength("Last", 40);
+        Exercise l1 = exercise(last, "Deadlift", 5, 3);
+        Exercise f1 = exercise(first, "Squat", 5, 5);
+        Exercise l2 = exercise(last, "Row", 3, 10);
+
+        List<Workout> loaded = workouts.getAllWithExercises();
+
+        assertEquals(List.of(first.getId(), empty.getId(), last.getId()), ids(loaded));
+        assertEquals(List.of(f1.getId()), exerciseIds(loaded.get(0)));
+        assertTrue(loaded.get(1).getExercises().isEmpty());
+        assertEquals(List.of(l1.getId(), l2.getId()), exerciseIds(loaded.get(2)));
+    }
+
+    @Test
+    void sortedQueriesFollowTheSpecWithIdAsTieBreaker() throws DatabaseOperationException {
+        Workout w30a = cardio("delta", 30);
+        Workout w10 = strength("Bravo", 10);
+        Workout w30b = strength("alpha", 30);
+        Workout w20 = cardio("Charlie", 20);
+
+        SortSpec byDuration = SortSpec.by(WorkoutSortField.DURATION, SortSpec.Direction.ASC);
+        assertEquals(List.of(w10.getId(), w20.getId(), w30a.getId(), w30b.getId()),
+                ids(workouts.getAllSorted(byDuration)));
+
+        SortSpec byName = SortSpec.by(WorkoutSortField.NAME, SortSpec.Direction.ASC);
+        assertEquals(List.of(w30b.getId(), w10.getId(), w20.getId(), w30a.getId()),
+                ids(workouts.getAllSorted(byName)));
+
+        SortSpec byTypeThenLongest = SortSpec.by(WorkoutSortField.TYPE, SortSpec.Direction.ASC)
+                .then(WorkoutSortField.DURATION, SortSpec.Direction.DESC);
+        assertEquals(List.of(w30a.getId(), w20.getId(), w30b.getId(), w10.getId()),
+                ids(workouts.getAllSorted(byTypeThenLongest)));
+
+        assertEquals(List.of(w10.getId(), w20.getId()), ids(workouts.getTopSorted(byDuration, 2)));
+        assertEquals(4, workouts.getTopSorted(byDuration, 10).size());
+    }
+
+    // PAGING
+    @Test
+    void pagesWalkEveryRowOnceInIdOrder() throws DatabaseOperationException {
+        List<Integer> created = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            created.add(cardio("Run " + i, 10 + i).getId());
+        }
+        workouts.deleteIfExists(created.remove(3));
+
+        List<Integer> seen = new ArrayList<>();
+        int afterId = 0;
+        List<Workout> page;
+        while (!(page = workouts.getPage(afterId, 2)).isEmpty()) {
+            assertTrue(page.size() <= 2);
+            for (Workout w : page) seen.add(w.getId());
+            afterId = page.get(page.size() - 1).getId();
+        }
+        assertEquals(created, seen);
+
+        Workout owner = workouts.getById(created.get(0));
+        List<Integer> exerciseIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) exerciseIds.add(exercise(owner, "Step " + i, 1, 1).getId());
+        assertEquals(exerciseIds.subList(2, 4), ids(exercises.getPage(exerciseIds.get(1), 2)));
+        assertTrue(exercises.getPage(exerciseIds.get(4), 2).isEmpty());
+    }
+
+    // SHORTEST BY TYPE
+    @Test
+    void shortestByTypeTakesLowestIdOnTies() throws DatabaseOperationException {
+        assertNull(workouts.getShortestByType("CARDIO"));
+
+        cardio("Long Run", 60);
+        Workout tieFirst = cardio("Tempo", 20);
+        cardio("Fartlek", 20);
+        Workout strength = strength("Bench", 45);
+
+        assertEquals(tieFirst.getId(), workouts.getShortestByType("CARDIO").getId());
+        assertEquals(strength.getId(), workouts.getShortestByType("STRENGTH").getId());
+
+        workouts.deleteIfExists(tieFirst.getId());
+        assertEquals("Fartlek", workouts.getShortestByType("CARDIO").getName());
+        workouts.deleteIfExists(strength.getId());
+        assertNull(workouts.getShortestByType("STRENGTH"));
+    }
+
+    private Workout cardio(String name, int duration) throws DatabaseOperationException {
+        Workout workout = new CardioWorkout(name, duration);
+        workouts.create(workout);
+        return workout;
+    }
+
+    private Workout strength(String name, int duration) throws DatabaseOperationException {
+        Workout workout = new StrengthWorkout(name, duration);
+        workouts.create(workout);
+        return workout;
+    }
+
+    private Exercise exercise(Workout workout, String name, int sets, int reps) throws DatabaseOperationException {
+        Exercise exercise = new Exercise(workout.getId(), name, sets, reps);
+        exercises.create(exercise);
+        assertNotNull(exercises.getById(exercise.getId()));
+        return exercise;
+    }
+
+    private static List<Integer> ids(List<?> rows) {
+        List<Integer> ids = new ArrayList<>();
+        for (Object row : rows) {
+            ids.add(row instanceof Workout ? ((Workout) row).getId() : ((Exercise) row).getId());
+        }
+        return ids;
+    }
+
+    private static List<Integer> exerciseIds(Workout workout) {
+        return ids(workout.getExercises());
+    }
+}